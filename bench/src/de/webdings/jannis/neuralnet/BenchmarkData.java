@@ -0,0 +1,105 @@
+/* BenchmarkData.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Random;
+
+/**
+ * BenchmarkData creates the nets and patterns used by the
+ * benchmarks. Everything is created from fixed seeds, so the
+ * results of different commits are measured on the same data.
+ * Only methods that have been part of Jannis from the start
+ * are used here, so the benchmarks can be run against older
+ * commits, except for {@link PackedPatternConverterBenchmark}.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+public class BenchmarkData {
+    //attributes
+    /**
+     * the seed every net and pattern set is created from
+     */
+    public static final long SEED = 20051017L;
+
+    //constructors
+    private BenchmarkData() {
+    }
+
+    //methods
+    /**
+     * Parses a net shape like <code>"64,128,16"</code>.
+     * @param shape the sizes of the layers, separated by commas
+     * @return the sizes of the layers
+     */
+    public static int[] parseShape(String shape) {
+        String[] parts = shape.split(",");
+        int[] sizes = new int[parts.length];
+        for(int i=0;i<parts.length;++i) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    /**
+     * Creates a net of {@link BiNeuron}s in which every neuron
+     * is connected to every neuron of the next layer. The
+     * tresholds are chosen so a fair share of the neurons fires,
+     * the weights lie between -0.2 and +0.2.
+     * @param sizes the sizes of the layers
+     * @return array containing layers of BiNeurons
+     */
+    public static BiNeuron[][] net(int[] sizes) {
+        Random generator = new Random(SEED);
+        BiNeuron[][] layers = new BiNeuron[sizes.length][];
+        for(int i=0;i<sizes.length;++i) {
+            layers[i] = new BiNeuron[sizes[i]];
+            for(int j=0;j<sizes[i];++j) {
+                layers[i][j] = new BiNeuron(generator.nextFloat()*0.5f);
+            }
+        }
+        for(int i=1;i<sizes.length;++i) {
+            for(int j=0;j<layers[i-1].length;++j) {
+                for(int k=0;k<layers[i].length;++k) {
+                    layers[i-1][j].addConnection(layers[i][k], generator.nextFloat()*0.4f - 0.2f);
+                }
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * Creates patterns in which every entry is <code>true</code>
+     * with a probability of 25%.
+     * @param numberOfPatterns
+     * @param patternSize
+     * @param seed
+     * @return the patterns
+     */
+    public static Pattern[] patterns(int numberOfPatterns, int patternSize, long seed) {
+        Random generator = new Random(seed);
+        Pattern[] pattern = new Pattern[numberOfPatterns];
+        for(int i=0;i<numberOfPatterns;++i) {
+            boolean[] entries = new boolean[patternSize];
+            for(int j=0;j<patternSize;++j) {
+                entries[j] = generator.nextInt(4) == 0;
+            }
+            pattern[i] = new Pattern(entries);
+        }
+        return pattern;
+    }
+}
@@ -0,0 +1,77 @@
+/* PackedPatternConverterBenchmark.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast {@link PatternConverter} encodes
+ * {@link PackedPattern}s as Strings of '0's and '1's and decodes
+ * them again. PackedPatterns were added after the first
+ * version of Jannis, so unlike the other benchmarks this one
+ * can't be run against commits before them.
+ * @see PatternConverterBenchmark
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedPatternConverterBenchmark {
+    //attributes
+    @Param({"64", "1024"})
+    public int patternSize;
+    @Param({"1000"})
+    public int numberOfPatterns;
+    private PackedPattern[] packedPattern;
+    private String encoded;
+
+    //methods
+    @Setup(Level.Trial)
+    public void setUp() {
+        Pattern[] pattern = BenchmarkData.patterns(numberOfPatterns, patternSize, BenchmarkData.SEED);
+        packedPattern = PatternConverter.pack(pattern);
+        encoded = PatternConverter.patternToStr(pattern, patternSize);
+    }
+
+    @Benchmark
+    public String encodePacked() {
+        return PatternConverter.packedPatternToStr(packedPattern, patternSize);
+    }
+
+    @Benchmark
+    public PackedPattern[] decodePacked() throws Exception {
+        return PatternConverter.strToPackedPattern(encoded, patternSize);
+    }
+}
@@ -0,0 +1,153 @@
+/* ParallelTrainerCheck.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ParallelTrainerCheck checks that {@link ParallelTrainer}
+ * changes the weights exactly like it is supposed to:
+ * <ul>
+ * <li>with a round size of <code>1</code> like a
+ * {@link TrainingCoordinator}</li>
+ * <li>the same way no matter how many threads are used</li>
+ * </ul>
+ * It prints the result of every check and exits with status
+ * <code>1</code> if one of them fails.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+public class ParallelTrainerCheck {
+    //attributes
+    private static final int[] SIZES = {40, 25, 20, 10};
+    private static final int NUMBER_OF_PATTERNS = 600;
+    private static final int EPOCHS = 2;
+
+    //constructors
+    private ParallelTrainerCheck() {
+    }
+
+    //methods
+    /**
+     * Runs the checks.
+     * @param args not used
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        Pattern[] input = BenchmarkData.patterns(NUMBER_OF_PATTERNS, SIZES[0], BenchmarkData.SEED);
+        Pattern[] desiredOutput = BenchmarkData.patterns(NUMBER_OF_PATTERNS, 
+                SIZES[SIZES.length-1], BenchmarkData.SEED+1);
+        float[] initial = weights(BenchmarkData.net(SIZES));
+        boolean passed = true;
+
+        BiNeuron[][] layers = BenchmarkData.net(SIZES);
+        TrainingCoordinator coordinator = new TrainingCoordinator(layers, input, desiredOutput);
+        for(int e=0;e<EPOCHS;++e) {
+            coordinator.start(0);
+        }
+        float[] expected = weights(layers);
+        passed &= check("the weights change during training", 
+                !Arrays.equals(expected, initial));
+        for(int t=1;t<=4;++t) {
+            float[] actual = trainInParallel(input, desiredOutput, t, 1);
+            passed &= check("round size 1, " + t + " thread(s) == TrainingCoordinator", 
+                    Arrays.equals(expected, actual));
+        }
+
+        expected = trainInParallel(input, desiredOutput, 1, 50);
+        for(int t=2;t<=8;t*=2) {
+            float[] actual = trainInParallel(input, desiredOutput, t, 50);
+            passed &= check("round size 50, " + t + " threads == 1 thread", 
+                    Arrays.equals(expected, actual));
+        }
+        if(!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static float[] trainInParallel(Pattern[] input, Pattern[] desiredOutput, 
+            int numberOfThreads, int roundSize) throws Exception {
+        BiNeuron[][] layers = BenchmarkData.net(SIZES);
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            ParallelTrainer trainer = new ParallelTrainer(layers, 
+                    new ArraySource(PatternConverter.pack(input)), 
+                    new ArraySource(PatternConverter.pack(desiredOutput)), pool, numberOfThreads);
+            trainer.setRoundSize(roundSize);
+            for(int e=0;e<EPOCHS;++e) {
+                trainer.trainEpoch();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return weights(layers);
+    }
+
+    /**
+     * @return the weights of all synapses of the net, in the
+     * order of the layers and neurons
+     */
+    static float[] weights(Neuron[][] layers) {
+        int n = 0;
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                n += layers[i][j].getNumberOfConnections();
+            }
+        }
+        float[] weights = new float[n];
+        n = 0;
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                Synapse[] connections = layers[i][j].getConnections();
+                for(int k=0;k<layers[i][j].getNumberOfConnections();++k) {
+                    weights[n++] = connections[k].getWeight();
+                }
+            }
+        }
+        return weights;
+    }
+
+    static boolean check(String description, boolean passed) {
+        System.out.println((passed ? "passed: " : "FAILED: ") + description);
+        return passed;
+    }
+
+    /**
+     * ArraySource provides the patterns of an array.
+     */
+    private static class ArraySource implements PatternSource {
+        private final PackedPattern[] pattern;
+
+        ArraySource(PackedPattern[] pattern) {
+            this.pattern = pattern;
+        }
+
+        public int numberOfPatterns() {
+            return pattern.length;
+        }
+
+        public int patternSize() {
+            return pattern.length > 0 ? pattern[0].size() : 0;
+        }
+
+        public PackedPattern getPackedPattern(int index) {
+            return pattern[index];
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/* PropagationBenchmark.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many patterns {@link Coordinator#start()}
+ * processes per second for several net shapes. Every
+ * invocation presents the net with all patterns once, using a
+ * new Coordinator, which takes little time compared to the
+ * patterns.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagationBenchmark {
+    //attributes
+    /**
+     * the sizes of the layers
+     */
+    @Param({"16,32,8", "64,128,16", "256,512,64", "1024,1024,128"})
+    public String shape;
+    /**
+     * the number of patterns presented per invocation
+     */
+    @Param({"256"})
+    public int numberOfPatterns;
+    private BiNeuron[][] layers;
+    private Pattern[] input;
+
+    //methods
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] sizes = BenchmarkData.parseShape(shape);
+        layers = BenchmarkData.net(sizes);
+        input = BenchmarkData.patterns(numberOfPatterns, sizes[0], BenchmarkData.SEED);
+    }
+
+    /**
+     * @return the number of patterns processed
+     * @throws Exception
+     */
+    @Benchmark
+    public int start() throws Exception {
+        Coordinator coordinator = new Coordinator(layers, input);
+        coordinator.start();
+        return coordinator.reader.numberOfPatternsRead();
+    }
+}
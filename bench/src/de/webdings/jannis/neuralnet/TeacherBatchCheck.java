@@ -0,0 +1,177 @@
+/* TeacherBatchCheck.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+
+/**
+ * TeacherBatchCheck checks that the mini-batches of a
+ * {@link Teacher} change the weights exactly like they are
+ * supposed to:
+ * <ul>
+ * <li>with a batch size of <code>1</code> like the Teacher did
+ * before mini-batches were added</li>
+ * <li>with a batch size of <i>n</i> like a
+ * {@link ParallelTrainer} with a round size of <i>n</i></li>
+ * <li>a run that is cancelled makes the changes of its
+ * incomplete batch, and they don't leak into the next run</li>
+ * </ul>
+ * It prints the result of every check and exits with status
+ * <code>1</code> if one of them fails.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see ParallelTrainerCheck
+ */
+public class TeacherBatchCheck {
+    //attributes
+    private static final int[] SIZES = {40, 25, 20, 10};
+    private static final int NUMBER_OF_PATTERNS = 600;
+
+    //constructors
+    private TeacherBatchCheck() {
+    }
+
+    //methods
+    /**
+     * Runs the checks.
+     * @param args not used
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        Pattern[] input = BenchmarkData.patterns(NUMBER_OF_PATTERNS, SIZES[0], BenchmarkData.SEED);
+        Pattern[] desiredOutput = BenchmarkData.patterns(NUMBER_OF_PATTERNS, 
+                SIZES[SIZES.length-1], BenchmarkData.SEED+1);
+        boolean passed = true;
+
+        BiNeuron[][] layers = BenchmarkData.net(SIZES);
+        trainLikeBefore(layers, input, desiredOutput);
+        float[] expected = ParallelTrainerCheck.weights(layers);
+        layers = BenchmarkData.net(SIZES);
+        TrainingCoordinator coordinator = new TrainingCoordinator(layers, input, desiredOutput);
+        coordinator.teacher.setBatchSize(1);
+        coordinator.start();
+        passed &= ParallelTrainerCheck.check("batch size 1 == Teacher without mini-batches", 
+                Arrays.equals(expected, ParallelTrainerCheck.weights(layers)));
+
+        int[] batchSizes = {7, 50, 1000};
+        for(int b=0;b<batchSizes.length;++b) {
+            layers = BenchmarkData.net(SIZES);
+            coordinator = new TrainingCoordinator(layers, input, desiredOutput);
+            coordinator.teacher.setBatchSize(batchSizes[b]);
+            coordinator.teacher.setLearningStep(0.05f);
+            coordinator.start();
+            coordinator.start(0);
+            expected = ParallelTrainerCheck.weights(layers);
+            layers = BenchmarkData.net(SIZES);
+            ParallelTrainer trainer = new ParallelTrainer(layers, input, desiredOutput);
+            trainer.setRoundSize(batchSizes[b]);
+            trainer.setLearningStep(0.05f);
+            trainer.trainEpoch();
+            trainer.trainEpoch();
+            passed &= ParallelTrainerCheck.check("batch size " + batchSizes[b] 
+                    + " == ParallelTrainer with round size " + batchSizes[b], 
+                    Arrays.equals(expected, ParallelTrainerCheck.weights(layers)));
+        }
+
+        int cancelAt = 130;
+        layers = BenchmarkData.net(SIZES);
+        coordinator = new TrainingCoordinator(layers, 
+                Arrays.copyOf(input, cancelAt), Arrays.copyOf(desiredOutput, cancelAt));
+        coordinator.teacher.setBatchSize(50);
+        coordinator.start();
+        coordinator = new TrainingCoordinator(layers, input, desiredOutput);
+        coordinator.teacher.setBatchSize(50);
+        coordinator.start();
+        expected = ParallelTrainerCheck.weights(layers);
+        layers = BenchmarkData.net(SIZES);
+        final TrainingCoordinator cancelled = new TrainingCoordinator(layers, input, desiredOutput);
+        cancelled.teacher.setBatchSize(50);
+        final int last = cancelAt-1;
+        cancelled.setRunListener(new RunAdapter() {
+            public void patternProcessed(int index, long nanos) {
+                if(index == last) {
+                    cancelled.cancel();
+                }
+            }
+        });
+        cancelled.start();
+        cancelled.setRunListener(null);
+        cancelled.start(0);
+        passed &= ParallelTrainerCheck.check("a cancelled run makes the changes of its incomplete batch", 
+                Arrays.equals(expected, ParallelTrainerCheck.weights(layers)));
+        if(!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Presents the net with every input pattern and changes the
+     * weights by 0.1 right after every pattern, searching the
+     * previous layer for the sources of every neuron, like
+     * {@link TrainingCoordinator} and Teacher did before
+     * mini-batches were added.
+     */
+    private static void trainLikeBefore(Neuron[][] layers, Pattern[] input, Pattern[] desiredOutput) {
+        for(int p=0;p<input.length;++p) {
+            int i, j, k, l;
+            for(j=0;j<layers[0].length;++j) {
+                if(input[p].entries[j]) {
+                    layers[0][j].fire();
+                }
+            }
+            for(i=1;i<layers.length;++i) {
+                for(j=0;j<layers[i].length;++j) {
+                    if(layers[i][j].tresholdReached()) {
+                        layers[i][j].fire();
+                    }
+                }
+            }
+            Neuron[] outputLayer = layers[layers.length-1];
+            for(j=0;j<outputLayer.length;++j) {
+                outputLayer[j].setShouldHaveFired(desiredOutput[p].entries[j]);
+            }
+            for(i=layers.length-1;i>0;--i) {
+                for(j=0;j<layers[i].length;++j) {
+                    Neuron target = layers[i][j];
+                    for(k=0;k<layers[i-1].length;++k) {
+                        Neuron source = layers[i-1][k];
+                        Synapse[] connections = source.getConnections();
+                        for(l=0;l<source.getNumberOfConnections();++l) {
+                            if(connections[l].getTarget() != target || !source.hasFired()) {
+                                continue;
+                            }
+                            if(target.hasFired() && target.getShouldHaveFired()) {
+                                source.setShouldHaveFired(true);
+                            } else if(target.hasFired()) {
+                                connections[l].setWeight(connections[l].getWeight()-0.1f);
+                            } else if(target.getShouldHaveFired()) {
+                                connections[l].setWeight(connections[l].getWeight()+0.1f);
+                                source.setShouldHaveFired(true);
+                            }
+                        }
+                    }
+                }
+            }
+            for(i=0;i<layers.length;++i) {
+                for(j=0;j<layers[i].length;++j) {
+                    layers[i][j].clear();
+                }
+            }
+        }
+    }
+}
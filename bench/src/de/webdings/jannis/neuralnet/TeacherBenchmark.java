@@ -0,0 +1,144 @@
+/* TeacherBenchmark.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Teacher#teach()}, which is dominated by the
+ * backwards pass over every synapse of the net. The neurons are
+ * set to a fixed state of firing, so every call visits the same
+ * synapses.</p>
+ * <p>Every iteration calls teach() {@link #PATTERNS} times, once
+ * for every desired output pattern, and the score is the time
+ * for all of these calls. Before every iteration the net is
+ * reset and a new Teacher teaches one pattern, so the work a
+ * Teacher does before the first pattern isn't measured and
+ * every iteration does exactly the same work.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = TeacherBenchmark.PATTERNS)
+@Measurement(iterations = 20, batchSize = TeacherBenchmark.PATTERNS)
+@Fork(1)
+public class TeacherBenchmark {
+    //attributes
+    /**
+     * the number of calls of teach() per iteration
+     */
+    public static final int PATTERNS = 1000;
+    /**
+     * the sizes of the layers
+     */
+    @Param({"16,32,8", "64,128,16", "256,512,64", "1024,1024,128"})
+    public String shape;
+    private BiNeuron[][] layers;
+    /**
+     * whether a neuron fires, by layer and neuron
+     */
+    private boolean[][] fired;
+    private Synapse[] synapses;
+    private float[] weights;
+    /**
+     * one pattern for the Teacher to warm up with and one for
+     * every call that is measured
+     */
+    private Pattern[] desiredOutput;
+    private Teacher teacher;
+
+    //methods
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] sizes = BenchmarkData.parseShape(shape);
+        layers = BenchmarkData.net(sizes);
+        Random generator = new Random(BenchmarkData.SEED);
+        fired = new boolean[layers.length][];
+        int n = 0;
+        for(int i=0;i<layers.length;++i) {
+            fired[i] = new boolean[layers[i].length];
+            for(int j=0;j<layers[i].length;++j) {
+                fired[i][j] = generator.nextBoolean();
+                n += layers[i][j].getNumberOfConnections();
+            }
+        }
+        synapses = new Synapse[n];
+        weights = new float[n];
+        n = 0;
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                Synapse[] connections = layers[i][j].getConnections();
+                for(int k=0;k<layers[i][j].getNumberOfConnections();++k) {
+                    synapses[n] = connections[k];
+                    weights[n] = connections[k].getWeight();
+                    ++n;
+                }
+            }
+        }
+        desiredOutput = BenchmarkData.patterns(PATTERNS+1, sizes[sizes.length-1],
+                BenchmarkData.SEED+1);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpTeacher() throws Exception {
+        resetNet();
+        teacher = new Teacher(desiredOutput, layers);
+        teacher.teach();
+        resetNet();
+    }
+
+    /**
+     * Sets the weights and the state of firing of the neurons
+     * back to the ones set up for the trial.
+     */
+    private void resetNet() {
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                layers[i][j].setFired(fired[i][j]);
+                layers[i][j].setShouldHaveFired(false);
+            }
+        }
+        for(int k=0;k<synapses.length;++k) {
+            synapses[k].setWeight(weights[k]);
+        }
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Benchmark
+    public void teach() throws Exception {
+        teacher.teach();
+    }
+}
@@ -0,0 +1,90 @@
+/* TrainingBenchmark.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time {@link TrainingCoordinator} needs for one
+ * epoch, i.e. for presenting the net with every training
+ * pattern once and teaching it after every pattern. The net is
+ * created anew before every invocation, so every invocation
+ * starts with the same weights.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingBenchmark {
+    //attributes
+    /**
+     * the sizes of the layers
+     */
+    @Param({"16,32,8", "64,128,16", "256,512,64"})
+    public String shape;
+    /**
+     * the number of training patterns
+     */
+    @Param({"256"})
+    public int numberOfPatterns;
+    private Pattern[] input;
+    private Pattern[] desiredOutput;
+    private TrainingCoordinator coordinator;
+
+    //methods
+    @Setup(Level.Trial)
+    public void setUpPatterns() {
+        int[] sizes = BenchmarkData.parseShape(shape);
+        input = BenchmarkData.patterns(numberOfPatterns, sizes[0], BenchmarkData.SEED);
+        desiredOutput = BenchmarkData.patterns(numberOfPatterns, sizes[sizes.length-1],
+                BenchmarkData.SEED+1);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpNet() throws Exception {
+        BiNeuron[][] layers = BenchmarkData.net(BenchmarkData.parseShape(shape));
+        coordinator = new TrainingCoordinator(layers, input, desiredOutput);
+    }
+
+    /**
+     * @return the number of patterns processed
+     * @throws Exception
+     */
+    @Benchmark
+    public int epoch() throws Exception {
+        coordinator.start();
+        return coordinator.reader.numberOfPatternsRead();
+    }
+}
@@ -0,0 +1,77 @@
+/* NNMLBenchmark.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet.nnml;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.webdings.jannis.neuralnet.BenchmarkData;
+import de.webdings.jannis.neuralnet.BiNeuron;
+
+/**
+ * Measures how long {@link BiNetToNNML#generateString(de.webdings.jannis.neuralnet.Neuron[][])}
+ * and {@link NNMLToBiNet#convertToBiNet(String)} take for nets
+ * of growing size.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NNMLBenchmark {
+    //attributes
+    /**
+     * the sizes of the layers
+     */
+    @Param({"16,32,8", "64,128,16", "256,512,64", "1024,1024,128"})
+    public String shape;
+    private BiNeuron[][] layers;
+    private String nnml;
+
+    //methods
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        layers = BenchmarkData.net(BenchmarkData.parseShape(shape));
+        nnml = new BiNetToNNML().generateString(layers);
+    }
+
+    @Benchmark
+    public String generateString() throws Exception {
+        return new BiNetToNNML().generateString(layers);
+    }
+
+    @Benchmark
+    public BiNeuron[][] convertToBiNet() throws Exception {
+        return new NNMLToBiNet().convertToBiNet(nnml);
+    }
+}
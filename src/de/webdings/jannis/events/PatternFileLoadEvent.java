@@ -0,0 +1,51 @@
+/* PatternFileLoadEvent.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PatternFileLoadEvent is recorded by the JDK Flight Recorder
+ * every time a pattern file is read or mapped into memory.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+@Name("de.webdings.jannis.PatternFileLoad")
+@Label("Pattern File Load")
+@Description("A pattern file is read or mapped into memory")
+@Category("Jannis")
+public class PatternFileLoadEvent extends Event {
+    //attributes
+    @Label("File")
+    public String file;
+    @Label("Format")
+    @Description("text, mapped text or binary")
+    public String format;
+    @Label("Patterns")
+    public int patterns;
+    @Label("Pattern Size")
+    public int patternSize;
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,337 @@
+/* CoordinatorMonitor.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.management;
+
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import de.webdings.jannis.neuralnet.Coordinator;
+import de.webdings.jannis.neuralnet.EpochTrainer;
+import de.webdings.jannis.neuralnet.Neuron;
+import de.webdings.jannis.neuralnet.RunListener;
+import de.webdings.jannis.neuralnet.Teacher;
+import de.webdings.jannis.neuralnet.TrainingCoordinator;
+import de.webdings.jannis.neuralnet.nnml.BiNetToNNML;
+
+/**
+ * CoordinatorMonitor makes the progress of a {@link Coordinator}
+ * or an {@link EpochTrainer} visible via JMX, e.g. in JConsole,
+ * and allows to stop it or save a checkpoint while it runs.</p>
+ * <p>{@link #register()} attaches the monitor as
+ * {@link RunListener} and registers it with the platform
+ * MBeanServer as
+ * <code>de.webdings.jannis:type=Coordinator,name=</code><i>n</i>.
+ * A listener that was attached before is still told about
+ * everything. {@link #unregister()} undoes both.</p>
+ * <p>A checkpoint is saved by the thread that runs the net,
+ * between two patterns, so the weights of the checkpoint are
+ * never changed halfway. When a {@link TrainingCoordinator}
+ * trains with mini-batches, the checkpoint is saved after the
+ * current batch is complete or the run has ended, so saving it
+ * doesn't change how the net is trained.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see RunListener
+ */
+public class CoordinatorMonitor implements CoordinatorMonitorMBean, RunListener {
+    //attributes
+    /**
+     * the approximate number of bytes taken up by a neuron and
+     * its (empty) arrays of synapses, assuming compressed
+     * references
+     */
+    private static final int NEURON_BYTES = 80;
+    /**
+     * the approximate number of bytes taken up by a synapse
+     * and the references to it
+     */
+    private static final int SYNAPSE_BYTES = 32;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private Coordinator coordinator;
+    /**
+     * the trainer running the coordinator, or <code>null</code>
+     */
+    private EpochTrainer trainer;
+    /**
+     * the listener of the coordinator before it was registered
+     */
+    private RunListener next;
+    /**
+     * the listener of the trainer before it was registered
+     */
+    private RunListener nextOfTrainer;
+    private ObjectName name;
+
+    private volatile boolean running;
+    private volatile int currentPattern;
+    private volatile int numberOfPatterns;
+    private volatile long runStart;
+    private volatile int patternsInRun;
+    private volatile double lastRate;
+    private volatile long errors;
+    private volatile long outputEntries;
+    /**
+     * the file the next checkpoint is to be saved to
+     */
+    private volatile String pendingCheckpoint;
+    private volatile String lastCheckpoint;
+    private volatile String lastCheckpointError;
+
+    //constructors
+    /**
+     * @param coordinator the Coordinator to be monitored
+     */
+    public CoordinatorMonitor(Coordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * @param trainer the EpochTrainer to be monitored
+     */
+    public CoordinatorMonitor(EpochTrainer trainer) {
+        this(trainer.getCoordinator());
+        this.trainer = trainer;
+    }
+
+    //methods
+    /**
+     * Attaches this monitor as {@link RunListener} and registers
+     * it with the platform MBeanServer.
+     * @return the name this monitor is registered under
+     * @throws JMException if it can't be registered
+     */
+    public synchronized ObjectName register() throws JMException {
+        if(name != null) {
+            return name;
+        }
+        ObjectName objectName = new ObjectName("de.webdings.jannis:type=Coordinator,name="
+                + SEQUENCE.incrementAndGet());
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        name = objectName;
+        next = coordinator.getRunListener();
+        coordinator.setRunListener(this);
+        if(trainer != null) {
+            nextOfTrainer = trainer.getRunListener();
+            trainer.setRunListener(this);
+        }
+        return name;
+    }
+
+    /**
+     * Attaches the listeners that were attached before
+     * {@link #register()} again and unregisters this monitor.
+     * @throws JMException if it can't be unregistered
+     */
+    public synchronized void unregister() throws JMException {
+        if(name == null) {
+            return;
+        }
+        coordinator.setRunListener(next);
+        if(trainer != null) {
+            trainer.setRunListener(nextOfTrainer);
+        }
+        ObjectName objectName = name;
+        name = null;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    /**
+     * @return the name this monitor is registered under, or
+     * <code>null</code>
+     */
+    public ObjectName getName() {
+        return name;
+    }
+
+    public synchronized void runStarted(int firstPattern, int numberOfPatterns) {
+        this.numberOfPatterns = numberOfPatterns;
+        this.patternsInRun = 0;
+        this.errors = 0;
+        this.outputEntries = 0;
+        this.runStart = System.nanoTime();
+        this.running = true;
+        if(next != null) {
+            next.runStarted(firstPattern, numberOfPatterns);
+        }
+    }
+
+    public void patternStarted(int index) {
+        currentPattern = index;
+        if(next != null) {
+            next.patternStarted(index);
+        }
+    }
+
+    public void layerProcessed(int index, int layerID, int fired, int synapsesEvaluated) {
+        if(next != null) {
+            next.layerProcessed(index, layerID, fired, synapsesEvaluated);
+        }
+    }
+
+    public void patternProcessed(int index, long nanos) {
+        ++patternsInRun;
+        if(next != null) {
+            next.patternProcessed(index, nanos);
+        }
+        if(pendingCheckpoint != null && !isInBatch()) {
+            synchronized(this) {
+                saveCheckpoint();
+            }
+        }
+    }
+
+    public synchronized void runFinished(int numberOfPatternsProcessed, long nanos) {
+        running = false;
+        lastRate = nanos > 0 ? numberOfPatternsProcessed * 1e9 / nanos : 0;
+        if(next != null) {
+            next.runFinished(numberOfPatternsProcessed, nanos);
+        }
+        saveCheckpoint();
+    }
+
+    public void patternTaught(int index, int bitErrors) {
+        errors += bitErrors;
+        outputEntries += coordinator.layers[coordinator.layers.length-1].length;
+        if(next != null) {
+            next.patternTaught(index, bitErrors);
+        }
+    }
+
+    public void epochFinished(int epoch, long error, long nanos) {
+        if(nextOfTrainer != null) {
+            nextOfTrainer.epochFinished(epoch, error, nanos);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the coordinator is a
+     * {@link TrainingCoordinator} whose current mini-batch has
+     * weight changes that haven't been made yet
+     */
+    private boolean isInBatch() {
+        return coordinator instanceof TrainingCoordinator
+            && ((TrainingCoordinator) coordinator).teacher.isInBatch();
+    }
+
+    /**
+     * Saves the pending checkpoint, if there is one. Must be
+     * called while holding the lock of this monitor.
+     */
+    private void saveCheckpoint() {
+        String fileName = pendingCheckpoint;
+        if(fileName == null) {
+            return;
+        }
+        pendingCheckpoint = null;
+        try {
+            OutputStream out = new FileOutputStream(fileName);
+            try {
+                new BiNetToNNML().write(coordinator.layers, out);
+            } finally {
+                out.close();
+            }
+            lastCheckpoint = fileName;
+            lastCheckpointError = null;
+        } catch (Exception e) {
+            lastCheckpointError = fileName + ": " + e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getCurrentPattern() {
+        return currentPattern;
+    }
+
+    public int getNumberOfPatterns() {
+        return numberOfPatterns;
+    }
+
+    public int getEpoch() {
+        return trainer != null ? trainer.getEpoch() : 0;
+    }
+
+    public double getPatternsPerSecond() {
+        if(!running) {
+            return lastRate;
+        }
+        long nanos = System.nanoTime() - runStart;
+        return nanos > 0 ? patternsInRun * 1e9 / nanos : 0;
+    }
+
+    public double getErrorRate() {
+        long entries = outputEntries;
+        return entries > 0 ? (double) errors / entries : 0;
+    }
+
+    public long getLastEpochError() {
+        return trainer != null ? trainer.getLastError() : -1;
+    }
+
+    public long getWeightUpdates() {
+        if(coordinator instanceof TrainingCoordinator) {
+            Teacher teacher = ((TrainingCoordinator) coordinator).teacher;
+            return teacher.getWeightUpdates();
+        }
+        return 0;
+    }
+
+    public long getApproximateMemory() {
+        Neuron[][] layers = coordinator.layers;
+        long bytes = 16L * layers.length;
+        for(int i=0;i<layers.length;++i) {
+            Neuron[] layer = layers[i];
+            bytes += 16 + 4L * layer.length;
+            for(int j=0;j<layer.length;++j) {
+                bytes += NEURON_BYTES + (long) SYNAPSE_BYTES * layer[j].getNumberOfConnections();
+            }
+        }
+        return bytes;
+    }
+
+    public String getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    public String getLastCheckpointError() {
+        return lastCheckpointError;
+    }
+
+    public void requestStop() {
+        if(trainer != null) {
+            trainer.cancel();
+        } else {
+            coordinator.cancel();
+        }
+    }
+
+    public synchronized void requestCheckpoint(String fileName) {
+        pendingCheckpoint = fileName;
+        if(!running) {
+            saveCheckpoint();
+        }
+    }
+}
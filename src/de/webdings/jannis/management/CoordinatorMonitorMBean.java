@@ -0,0 +1,107 @@
+/* CoordinatorMonitorMBean.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.management;
+
+/**
+ * The management interface of {@link CoordinatorMonitor}.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+public interface CoordinatorMonitorMBean {
+    /**
+     * @return <code>true</code> while the Coordinator presents
+     * the net with patterns
+     */
+    public boolean isRunning();
+
+    /**
+     * @return the index of the pattern the net is presented
+     * with or was presented with last
+     */
+    public int getCurrentPattern();
+
+    /**
+     * @return the number of patterns the Coordinator presents
+     * the net with in total
+     */
+    public int getNumberOfPatterns();
+
+    /**
+     * @return the number of epochs finished, or <code>0</code>
+     * if the Coordinator isn't run by an EpochTrainer
+     */
+    public int getEpoch();
+
+    /**
+     * @return the number of patterns processed per second
+     * during the current run, or during the last run if none is
+     * active
+     */
+    public double getPatternsPerSecond();
+
+    /**
+     * @return the share of output entries that differed from
+     * the desired output during the current run, between
+     * <code>0</code> and <code>1</code>
+     */
+    public double getErrorRate();
+
+    /**
+     * @return the error of the last epoch, or <code>-1</code>
+     */
+    public long getLastEpochError();
+
+    /**
+     * @return the number of times the Teacher has changed a
+     * weight, or <code>0</code> if the net isn't trained
+     */
+    public long getWeightUpdates();
+
+    /**
+     * @return the approximate number of bytes the neurons and
+     * synapses of the net take up
+     */
+    public long getApproximateMemory();
+
+    /**
+     * @return the file the last checkpoint was saved to, or
+     * <code>null</code>
+     */
+    public String getLastCheckpoint();
+
+    /**
+     * @return the error that occured while saving the last
+     * checkpoint, or <code>null</code>
+     */
+    public String getLastCheckpointError();
+
+    /**
+     * Makes the run or the training stop after the current
+     * pattern. The changes of an incomplete mini-batch are made
+     * before it returns. Has no effect if nothing is running.
+     */
+    public void requestStop();
+
+    /**
+     * Saves the net as NNML after the current pattern, or at
+     * once if no run is active. If the net is trained with
+     * mini-batches, it is saved after the current batch.
+     * @param fileName
+     */
+    public void requestCheckpoint(String fileName);
+}
@@ -0,0 +1,90 @@
+/* ActivationState.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+
+/**
+ * ActivationState holds the part of a net that changes while
+ * a pattern is processed: the net activation of every neuron
+ * and whether it has fired. It is what {@link Neuron#getNet()}
+ * and {@link Neuron#hasFired()} are for a net of objects.</p>
+ * <p>The topology of the net is kept in a {@link CompiledNet},
+ * which never changes. So every thread that presents a
+ * CompiledNet with input needs its own ActivationState, but
+ * the CompiledNet itself can be shared. An ActivationState
+ * must not be used by more than one thread at a time.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet#newActivationState()
+ */
+public class ActivationState {
+    //attributes
+    /**
+     * the summed up input of every neuron
+     */
+    final float[] net;
+    /**
+     * <code>true</code> for every neuron that has fired
+     */
+    final boolean[] fired;
+
+    //constructors
+    /**
+     * @param numberOfNeurons
+     */
+    ActivationState(int numberOfNeurons) {
+        this.net = new float[numberOfNeurons];
+        this.fired = new boolean[numberOfNeurons];
+    }
+
+    //methods
+    /**
+     * Sets the net activation of every neuron back to
+     * <code>0</code> and marks every neuron as not fired.
+     */
+    public void clear() {
+        Arrays.fill(net, 0f);
+        Arrays.fill(fired, false);
+    }
+
+    /**
+     * @param neuron the number of the neuron, counted layer by
+     * layer starting with the input layer
+     * @return <code>true</code> if the neuron has fired
+     */
+    public boolean hasFired(int neuron) {
+        return fired[neuron];
+    }
+
+    /**
+     * @param neuron the number of the neuron, counted layer by
+     * layer starting with the input layer
+     * @return the net activation of the neuron
+     */
+    public float getNet(int neuron) {
+        return net[neuron];
+    }
+
+    /**
+     * @return the number of neurons
+     */
+    public int size() {
+        return net.length;
+    }
+}
@@ -0,0 +1,190 @@
+/* BatchRunner.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+
+/**
+ * BatchRunner presents a {@link CompiledNet} with a block
+ * of patterns at once. Instead of processing the whole net
+ * for one pattern after the other, it processes every neuron
+ * for all patterns of the block before it moves on to the
+ * next neuron. So the synapses of a neuron are read once per
+ * block instead of once per pattern.</p>
+ * <p>For every single pattern the activation is still summed
+ * up in the same order as in {@link Coordinator#start()}, so
+ * the output patterns are the same. Larger blocks give more
+ * throughput, smaller ones return the first results sooner
+ * and need less memory.</p>
+ * <p>A BatchRunner keeps the activation of a whole block, so it
+ * must only be used by one thread at a time. The CompiledNet
+ * can be shared.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet
+ */
+public class BatchRunner {
+    //attributes
+    /**
+     * the net to be presented with input
+     */
+    private CompiledNet net;
+    /**
+     * the number of patterns processed at once
+     */
+    private int batchSize;
+    /**
+     * the net activation of every neuron for every pattern of
+     * the block. The entries for neuron n start at index
+     * <code>n*blockLength</code>.
+     */
+    private float[] activation;
+    /**
+     * <code>true</code> for every neuron and pattern of the block
+     * where the neuron has fired. Same layout as
+     * {@link #activation}.
+     */
+    private boolean[] fired;
+
+    //constructors
+    /**
+     * @param net
+     * @param batchSize the number of patterns processed at once
+     */
+    public BatchRunner(CompiledNet net, int batchSize) {
+        this.net = net;
+        setBatchSize(batchSize);
+    }
+
+    //methods
+    /**
+     * Presents the net with the specified input patterns,
+     * {@link #getBatchSize()} patterns at a time.
+     * @param input
+     * @return the output patterns produced by the net, in the
+     * order of the input patterns
+     * @throws PatternLayerMismatchException if a pattern is
+     * smaller than the input layer
+     */
+    public Pattern[] run(Pattern[] input) throws PatternLayerMismatchException {
+        Pattern[] output = new Pattern[input.length];
+        for(int i=0;i<input.length;++i) {
+            net.checkInput(input[i]);
+        }
+        for(int from=0;from<input.length;from+=batchSize) {
+            runBatch(input, from, Math.min(batchSize, input.length-from), output);
+        }
+        return output;
+    }
+
+    private void runBatch(Pattern[] input, int from, int length, Pattern[] output) {
+        int numberOfNeurons = net.sigma.length;
+        int inputSize = net.layerStart[1];
+        Arrays.fill(activation, 0, numberOfNeurons*length, 0f);
+        Arrays.fill(fired, 0, numberOfNeurons*length, false);
+        int n, b, base;
+        boolean any;
+        for(n=0;n<inputSize;++n) {
+            base = n*length;
+            any = false;
+            for(b=0;b<length;++b) {
+                if(input[from+b].entries[n]) {
+                    fired[base+b] = true;
+                    any = true;
+                }
+            }
+            if(any) {
+                fire(n, length);
+            }
+        }
+        for(n=inputSize;n<numberOfNeurons;++n) {
+            base = n*length;
+            any = false;
+            float sigma = net.sigma[n];
+            for(b=0;b<length;++b) {
+                if(activation[base+b]>=sigma) {
+                    fired[base+b] = true;
+                    any = true;
+                }
+            }
+            if(any) {
+                fire(n, length);
+            }
+        }
+        //read the output
+        int first = net.layerStart[net.layerStart.length-2];
+        for(b=0;b<length;++b) {
+            boolean[] entries = new boolean[numberOfNeurons-first];
+            for(n=first;n<numberOfNeurons;++n) {
+                entries[n-first] = fired[n*length+b];
+            }
+            output[from+b] = new Pattern(entries);
+        }
+    }
+
+    /**
+     * Passes the weights of the outgoing synapses of neuron n
+     * on for every pattern of the block in which n has fired.
+     */
+    private void fire(int n, int length) {
+        int base = n*length;
+        int end = net.synapseStart[n+1];
+        for(int k=net.synapseStart[n];k<end;++k) {
+            int target = net.synapseTarget[k]*length;
+            float weight = net.synapseWeight[k];
+            for(int b=0;b<length;++b) {
+                if(fired[base+b]) {
+                    activation[target+b] += weight;
+                }
+            }
+        }
+        for(int b=0;b<length;++b) {
+            if(fired[base+b]) {
+                activation[base+b] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return Returns the number of patterns processed at once.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize The number of patterns processed at once.
+     */
+    public void setBatchSize(int batchSize) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1!");
+        }
+        this.batchSize = batchSize;
+        this.activation = new float[net.sigma.length*batchSize];
+        this.fired = new boolean[activation.length];
+    }
+
+    /**
+     * @return Returns the net.
+     */
+    public CompiledNet getNet() {
+        return net;
+    }
+}
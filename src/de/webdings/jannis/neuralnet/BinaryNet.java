@@ -0,0 +1,301 @@
+/* BinaryNet.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * BinaryNet gives access to a net of {@link BiNeuron}s stored
+ * in the binary format written by {@link BinaryNetWriter}.</p>
+ * <p>The file is mapped into memory instead of being read, so
+ * opening even a very large net takes almost no time and the
+ * pages of the file are shared by all processes that use it.
+ * The net can be turned into a {@link CompiledNet} or into
+ * layers of BiNeurons; both are copies on the heap, so only
+ * the getters of this class read the mapped file
+ * directly.</p>
+ * <p>The format consists of a header and five arrays, all
+ * numbers are stored big-endian:
+ * <ul>
+ * <li>the int {@link #MAGIC}, the int {@link #VERSION} and
+ * the number of layers, neurons and synapses as ints</li>
+ * <li>the number of the first neuron of every layer, followed
+ * by the number of neurons (ints)</li>
+ * <li>the treshold of every neuron (floats)</li>
+ * <li>the index of the first outgoing synapse of every neuron,
+ * followed by the number of synapses (ints)</li>
+ * <li>the number of the target neuron of every synapse (ints)</li>
+ * <li>the weight of every synapse (floats)</li>
+ * </ul>
+ * Neurons are numbered layer by layer, starting with the input
+ * layer, the same way {@link CompiledNet} numbers them.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see BinaryNetWriter
+ */
+public class BinaryNet {
+    //attributes
+    /**
+     * the first four bytes of every file, "JNNB"
+     */
+    public static final int MAGIC = 0x4A4E4E42;
+    /**
+     * the version of the format
+     */
+    public static final int VERSION = 1;
+    /**
+     * the size of the header in bytes
+     */
+    static final int HEADER_SIZE = 20;
+    private int numberOfLayers;
+    private int numberOfNeurons;
+    private int numberOfSynapses;
+    private IntBuffer layerStart;
+    private FloatBuffer sigma;
+    private IntBuffer synapseStart;
+    private IntBuffer synapseTarget;
+    private FloatBuffer synapseWeight;
+
+    //constructors
+    /**
+     * @param fileName
+     * @throws IOException if the file can't be read or isn't
+     * a binary net
+     */
+    public BinaryNet(String fileName) throws IOException {
+        this(new File(fileName));
+    }
+
+    /**
+     * @param file
+     * @throws IOException if the file can't be read or isn't
+     * a binary net
+     */
+    public BinaryNet(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            if(length < HEADER_SIZE) {
+                throw new IOException(file + " is not a binary net!");
+            }
+            IntBuffer header = map(channel, 0, HEADER_SIZE).asIntBuffer();
+            if(header.get(0) != MAGIC) {
+                throw new IOException(file + " is not a binary net!");
+            }
+            if(header.get(1) != VERSION) {
+                throw new IOException("Unsupported version " + header.get(1) + " of " + file + "!");
+            }
+            numberOfLayers = header.get(2);
+            numberOfNeurons = header.get(3);
+            numberOfSynapses = header.get(4);
+            if(numberOfLayers < 1 || numberOfNeurons < 0 || numberOfSynapses < 0
+               || length != size(numberOfLayers, numberOfNeurons, numberOfSynapses)) {
+                throw new IOException("The size of " + file + " doesn't match its header!");
+            }
+            long position = HEADER_SIZE;
+            layerStart = map(channel, position, 4L*(numberOfLayers+1)).asIntBuffer();
+            position += 4L*(numberOfLayers+1);
+            sigma = map(channel, position, 4L*numberOfNeurons).asFloatBuffer();
+            position += 4L*numberOfNeurons;
+            synapseStart = map(channel, position, 4L*(numberOfNeurons+1)).asIntBuffer();
+            position += 4L*(numberOfNeurons+1);
+            synapseTarget = map(channel, position, 4L*numberOfSynapses).asIntBuffer();
+            position += 4L*numberOfSynapses;
+            synapseWeight = map(channel, position, 4L*numberOfSynapses).asFloatBuffer();
+        } finally {
+            //the mapping stays valid after the file has been closed
+            raf.close();
+        }
+        checkIndex(layerStart, numberOfLayers, numberOfNeurons, "layer");
+        checkIndex(synapseStart, numberOfNeurons, numberOfSynapses, "neuron");
+    }
+
+    //methods
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if(size > Integer.MAX_VALUE) {
+            throw new IOException("The net is too large to be mapped!");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @return the size in bytes of a file containing a net of
+     * the specified size
+     */
+    static long size(int numberOfLayers, int numberOfNeurons, int numberOfSynapses) {
+        return HEADER_SIZE + 4L*(numberOfLayers+1) + 8L*numberOfNeurons + 4
+               + 8L*numberOfSynapses;
+    }
+
+    /**
+     * Checks that an index array starts at <code>0</code>,
+     * ends at <code>total</code> and never decreases.
+     */
+    private static void checkIndex(IntBuffer index, int length, int total, String name) throws IOException {
+        int previous = 0;
+        for(int i=0;i<=length;++i) {
+            int value = index.get(i);
+            if(value < previous || (i == 0 && value != 0)) {
+                throw new IOException("The " + name + " index of the binary net is corrupt!");
+            }
+            previous = value;
+        }
+        if(previous != total) {
+            throw new IOException("The " + name + " index of the binary net is corrupt!");
+        }
+    }
+
+    /**
+     * Copies the net into a {@link CompiledNet}. This is a full
+     * copy of the arrays stored in the file: the CompiledNet
+     * doesn't use the mapped file, so it takes up as much heap
+     * as the file is large, and all of the file is read once.
+     * @return the net as CompiledNet
+     * @throws IOException if a synapse targets a neuron that
+     * doesn't exist
+     */
+    public CompiledNet toCompiledNet() throws IOException {
+        int[] layers = new int[numberOfLayers+1];
+        float[] sigmas = new float[numberOfNeurons];
+        int[] starts = new int[numberOfNeurons+1];
+        int[] targets = new int[numberOfSynapses];
+        float[] weights = new float[numberOfSynapses];
+        layerStart.duplicate().get(layers);
+        sigma.duplicate().get(sigmas);
+        synapseStart.duplicate().get(starts);
+        synapseTarget.duplicate().get(targets);
+        synapseWeight.duplicate().get(weights);
+        for(int k=0;k<targets.length;++k) {
+            checkTarget(targets[k]);
+        }
+        return new CompiledNet(layers, sigmas, starts, targets, weights);
+    }
+
+    /**
+     * Builds layers of {@link BiNeuron}s from the net. The
+     * outgoing synapses of every neuron are in the order they
+     * are stored in the file.
+     * @return array containing layers of BiNeurons
+     * @throws IOException if a synapse targets a neuron that
+     * doesn't exist
+     */
+    public BiNeuron[][] toBiNet() throws IOException {
+        BiNeuron[] neurons = new BiNeuron[numberOfNeurons];
+        BiNeuron[][] layers = new BiNeuron[numberOfLayers][];
+        int i, n, k;
+        for(i=0;i<numberOfLayers;++i) {
+            layers[i] = new BiNeuron[getLayerSize(i)];
+            for(n=layerStart.get(i);n<layerStart.get(i+1);++n) {
+                neurons[n] = new BiNeuron(sigma.get(n));
+                layers[i][n-layerStart.get(i)] = neurons[n];
+            }
+        }
+        for(n=0;n<numberOfNeurons;++n) {
+            int start = synapseStart.get(n);
+            Synapse[] connections = new Synapse[synapseStart.get(n+1)-start];
+            for(k=0;k<connections.length;++k) {
+                int target = synapseTarget.get(start+k);
+                checkTarget(target);
+                connections[k] = new Synapse(neurons[n], neurons[target], synapseWeight.get(start+k));
+            }
+            neurons[n].setConnections(connections);
+        }
+        return layers;
+    }
+
+    private void checkTarget(int target) throws IOException {
+        if(target < 0 || target >= numberOfNeurons) {
+            throw new IOException("A synapse of the binary net targets the neuron "
+                    + target + ", which doesn't exist!");
+        }
+    }
+
+    /**
+     * @return Returns the number of layers.
+     */
+    public int getNumberOfLayers() {
+        return numberOfLayers;
+    }
+
+    /**
+     * @param layerID
+     * @return the number of neurons in the specified layer
+     */
+    public int getLayerSize(int layerID) {
+        return layerStart.get(layerID+1)-layerStart.get(layerID);
+    }
+
+    /**
+     * @return Returns the number of neurons.
+     */
+    public int getNumberOfNeurons() {
+        return numberOfNeurons;
+    }
+
+    /**
+     * @return Returns the number of synapses.
+     */
+    public int getNumberOfSynapses() {
+        return numberOfSynapses;
+    }
+
+    /**
+     * @param n the number of a neuron
+     * @return the treshold of the neuron, read directly from
+     * the mapped file
+     */
+    public float getSigma(int n) {
+        return sigma.get(n);
+    }
+
+    /**
+     * @param n the number of a neuron
+     * @return the index of the first outgoing synapse of the
+     * neuron. The synapses of neuron n end where those of
+     * neuron n+1 start.
+     */
+    public int getSynapseStart(int n) {
+        return synapseStart.get(n);
+    }
+
+    /**
+     * @param k the index of a synapse
+     * @return the number of the target neuron of the synapse,
+     * read directly from the mapped file
+     */
+    public int getSynapseTarget(int k) {
+        return synapseTarget.get(k);
+    }
+
+    /**
+     * @param k the index of a synapse
+     * @return the weight of the synapse, read directly from the
+     * mapped file
+     */
+    public float getSynapseWeight(int k) {
+        return synapseWeight.get(k);
+    }
+}
@@ -0,0 +1,142 @@
+/* BinaryNetWriter.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+
+/**
+ * BinaryNetWriter writes a net of {@link BiNeuron}s in the
+ * binary format described in {@link BinaryNet}. The arrays of
+ * a {@link CompiledNet} are written as they are, so the time
+ * needed grows linearly with the size of the net.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see BinaryNet
+ */
+public class BinaryNetWriter {
+    //attributes
+    private ByteBuffer buffer;
+    private OutputStream out;
+
+    //methods
+    /**
+     * Writes the specified net to a file of the specified name.
+     * @param net
+     * @param fileName
+     * @throws NeuronTypeMismatchException if the net doesn't
+     * consist of BiNeurons
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     * @throws IOException
+     */
+    public void write(NeuralNet net, String fileName) throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        write(net.compile(), fileName);
+    }
+
+    /**
+     * Writes the specified layers to a file of the specified name.
+     * @param layers
+     * @param fileName
+     * @throws NeuronTypeMismatchException if the layers don't
+     * consist of BiNeurons
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the layers
+     * @throws IOException
+     */
+    public void write(Neuron[][] layers, String fileName) throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        write(new NetCompiler().compile(layers), fileName);
+    }
+
+    /**
+     * Writes the specified net to a file of the specified name.
+     * @param net
+     * @param fileName
+     * @throws IOException
+     */
+    public void write(CompiledNet net, String fileName) throws IOException {
+        OutputStream file = new FileOutputStream(fileName);
+        try {
+            write(net, file);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Writes the specified net to the specified stream. The
+     * stream is not closed.
+     * @param net
+     * @param out
+     * @throws IOException
+     */
+    public synchronized void write(CompiledNet net, OutputStream out) throws IOException {
+        this.out = out;
+        this.buffer = ByteBuffer.allocate(65536).order(ByteOrder.BIG_ENDIAN);
+        try {
+            putInt(BinaryNet.MAGIC);
+            putInt(BinaryNet.VERSION);
+            putInt(net.layerStart.length-1);
+            putInt(net.sigma.length);
+            putInt(net.synapseTarget.length);
+            putInts(net.layerStart);
+            putFloats(net.sigma);
+            putInts(net.synapseStart);
+            putInts(net.synapseTarget);
+            putFloats(net.synapseWeight);
+            flush();
+            out.flush();
+        } finally {
+            this.out = null;
+            this.buffer = null;
+        }
+    }
+
+    private void putInt(int value) throws IOException {
+        if(buffer.remaining() < 4) {
+            flush();
+        }
+        buffer.putInt(value);
+    }
+
+    private void putInts(int[] values) throws IOException {
+        for(int i=0;i<values.length;++i) {
+            putInt(values[i]);
+        }
+    }
+
+    private void putFloats(float[] values) throws IOException {
+        for(int i=0;i<values.length;++i) {
+            if(buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putFloat(values[i]);
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
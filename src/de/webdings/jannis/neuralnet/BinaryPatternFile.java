@@ -0,0 +1,181 @@
+/* BinaryPatternFile.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+import de.webdings.jannis.events.PatternFileLoadEvent;
+
+/**
+ * BinaryPatternFile is a {@link PatternSource} that reads
+ * patterns from a binary pattern file written by
+ * {@link BinaryPatternWriter}. Such a file needs an eighth of
+ * the space of a file of '0's and '1's and doesn't need to be
+ * parsed.</p>
+ * <p>The file starts with a header of four big-endian ints:
+ * {@link #MAGIC}, {@link #VERSION}, the size of the patterns
+ * and the number of patterns. It is followed by one record per
+ * pattern. Every record has the same size: the entries of the
+ * pattern packed into big-endian longs, entry j is bit
+ * <code>j%64</code> of long <code>j/64</code>, just like in
+ * {@link PackedPattern}. So every pattern can be found
+ * directly by its index.</p>
+ * <p>The file is mapped into memory in chunks of at most 2 GB,
+ * each of which contains whole records.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see BinaryPatternWriter
+ */
+public class BinaryPatternFile implements PatternSource {
+    //attributes
+    /**
+     * the first four bytes of every file, "JNNP"
+     */
+    public static final int MAGIC = 0x4A4E4E50;
+    /**
+     * the version of the format
+     */
+    public static final int VERSION = 1;
+    /**
+     * the size of the header in bytes
+     */
+    static final int HEADER_SIZE = 16;
+    private int patternSize;
+    private int numberOfPatterns;
+    /**
+     * the number of longs of every record
+     */
+    private int wordsPerPattern;
+    /**
+     * the number of patterns in every chunk but the last
+     */
+    private int patternsPerChunk;
+    private LongBuffer[] chunks;
+
+    //constructors
+    /**
+     * @param fileName
+     * @throws IOException if the file can't be read or isn't a
+     * binary pattern file
+     */
+    public BinaryPatternFile(String fileName) throws IOException {
+        this(new File(fileName));
+    }
+
+    /**
+     * @param file
+     * @throws IOException if the file can't be read or isn't a
+     * binary pattern file
+     */
+    public BinaryPatternFile(File file) throws IOException {
+        PatternFileLoadEvent event = new PatternFileLoadEvent();
+        event.begin();
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            if(length < HEADER_SIZE) {
+                throw new IOException(file + " is not a binary pattern file!");
+            }
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+            if(header.get(0) != MAGIC) {
+                throw new IOException(file + " is not a binary pattern file!");
+            }
+            if(header.get(1) != VERSION) {
+                throw new IOException("Unsupported version " + header.get(1) + " of " + file + "!");
+            }
+            patternSize = header.get(2);
+            numberOfPatterns = header.get(3);
+            wordsPerPattern = (patternSize + 63) >>> 6;
+            long recordSize = 8L * wordsPerPattern;
+            if(patternSize < 1 || numberOfPatterns < 0
+               || length != HEADER_SIZE + recordSize * numberOfPatterns) {
+                throw new IOException("The size of " + file + " doesn't match its header!");
+            }
+            patternsPerChunk = (int) Math.max(1, Integer.MAX_VALUE / recordSize);
+            int numberOfChunks = (numberOfPatterns + patternsPerChunk - 1) / patternsPerChunk;
+            chunks = new LongBuffer[numberOfChunks];
+            for(int c=0;c<numberOfChunks;++c) {
+                long first = (long) c * patternsPerChunk;
+                long count = Math.min(patternsPerChunk, numberOfPatterns - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * recordSize, count * recordSize)
+                        .order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+            }
+        } finally {
+            //the mapping stays valid after the file has been closed
+            raf.close();
+        }
+        if(event.shouldCommit()) {
+            event.file = file.getPath();
+            event.format = "binary";
+            event.patterns = numberOfPatterns;
+            event.patternSize = patternSize;
+            event.bytes = file.length();
+            event.commit();
+        }
+    }
+
+    //methods
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#numberOfPatterns()
+     */
+    public int numberOfPatterns() {
+        return numberOfPatterns;
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#patternSize()
+     */
+    public int patternSize() {
+        return patternSize;
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#getPackedPattern(int)
+     */
+    public PackedPattern getPackedPattern(int index) {
+        if(index < 0 || index >= numberOfPatterns) {
+            throw new IndexOutOfBoundsException("There is no pattern with the index "
+                    + index + "!");
+        }
+        LongBuffer chunk = chunks[index / patternsPerChunk];
+        int offset = (index % patternsPerChunk) * wordsPerPattern;
+        long[] words = new long[wordsPerPattern];
+        for(int w=0;w<wordsPerPattern;++w) {
+            words[w] = chunk.get(offset+w);
+        }
+        return new PackedPattern(words, patternSize);
+    }
+
+    /**
+     * @param index
+     * @return a new Pattern containing the pattern of the
+     * specified index
+     */
+    public Pattern getPattern(int index) {
+        return getPackedPattern(index).toPattern();
+    }
+}
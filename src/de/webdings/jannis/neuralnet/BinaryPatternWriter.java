@@ -0,0 +1,157 @@
+/* BinaryPatternWriter.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * BinaryPatternWriter writes patterns to a binary pattern
+ * file, the format described in {@link BinaryPatternFile}.
+ * It is a {@link PatternSink}, so a {@link PatternReader} can
+ * write the output of a net directly to such a file.</p>
+ * <p>The number of patterns in the header is updated every
+ * time {@link #flush()} is called, so the file is complete
+ * after a flush. It has to be closed by calling
+ * {@link #close()}.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see BinaryPatternFile
+ */
+public class BinaryPatternWriter implements PatternSink {
+    //attributes
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private int patternSize;
+    private int wordsPerPattern;
+    /**
+     * the number of patterns written so far
+     */
+    private int counter;
+
+    //constructors
+    /**
+     * Creates the file of the specified name. An existing file
+     * of that name is overwritten.
+     * @param fileName
+     * @param patternSize the size of the patterns to be written
+     * @throws IOException
+     */
+    public BinaryPatternWriter(String fileName, int patternSize) throws IOException {
+        if(patternSize < 1) {
+            throw new IllegalArgumentException("The pattern size must be at least 1!");
+        }
+        this.patternSize = patternSize;
+        this.wordsPerPattern = (patternSize + 63) >>> 6;
+        this.file = new RandomAccessFile(fileName, "rw");
+        this.file.setLength(0);
+        this.channel = file.getChannel();
+        this.buffer = ByteBuffer.allocate(Math.max(65536, 8*wordsPerPattern)).order(ByteOrder.BIG_ENDIAN);
+        this.counter = 0;
+        buffer.putInt(BinaryPatternFile.MAGIC);
+        buffer.putInt(BinaryPatternFile.VERSION);
+        buffer.putInt(patternSize);
+        buffer.putInt(0);
+    }
+
+    //methods
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSink#write(de.webdings.jannis.neuralnet.PackedPattern)
+     */
+    public void write(PackedPattern pattern) throws IOException {
+        if(pattern.size() != patternSize) {
+            throw new IOException("The size of the pattern doesn't match " +
+                    "the pattern size of the file!");
+        }
+        if(counter == Integer.MAX_VALUE) {
+            throw new IOException("The file can't hold more patterns!");
+        }
+        if(buffer.remaining() < 8*wordsPerPattern) {
+            drain();
+        }
+        long[] words = pattern.words;
+        for(int w=0;w<wordsPerPattern;++w) {
+            buffer.putLong(words[w]);
+        }
+        ++counter;
+    }
+
+    /**
+     * Writes all specified patterns.
+     * @param patterns
+     * @throws IOException
+     */
+    public void write(PackedPattern[] patterns) throws IOException {
+        for(int i=0;i<patterns.length;++i) {
+            write(patterns[i]);
+        }
+    }
+
+    /**
+     * Writes the patterns that are still buffered and updates
+     * the number of patterns in the header.
+     * @see de.webdings.jannis.neuralnet.PatternSink#flush()
+     */
+    public void flush() throws IOException {
+        drain();
+        ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+        count.putInt(counter).flip();
+        long position = 12;
+        while(count.hasRemaining()) {
+            position += channel.write(count, position);
+        }
+    }
+
+    /**
+     * Flushes and closes the file.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return the number of patterns written so far
+     */
+    public int numberOfPatternsWritten() {
+        return counter;
+    }
+
+    /**
+     * @return Returns the pattern size.
+     */
+    public int getPatternSize() {
+        return patternSize;
+    }
+}
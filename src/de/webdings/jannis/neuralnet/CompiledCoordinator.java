@@ -0,0 +1,200 @@
+/* CompiledCoordinator.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.IOException;
+
+import de.webdings.jannis.exceptions.BadArgumentException;
+import de.webdings.jannis.exceptions.PatternCreateException;
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+import de.webdings.tools.files.TextFiles;
+
+/**
+ * CompiledCoordinator does for a {@link CompiledNet} what
+ * {@link Coordinator} does for a net of {@link Neuron}s: it
+ * presents the net with input patterns and stores the output
+ * produced by the net.</p>
+ * <p>Every CompiledCoordinator owns its own
+ * {@link ActivationState}. So any number of CompiledCoordinators
+ * can share the same CompiledNet and run in different threads
+ * at the same time. A single CompiledCoordinator must only be
+ * used by one thread.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet
+ */
+public class CompiledCoordinator {
+    //attributes
+    /**
+     * the net to be coordinated
+     */
+    private CompiledNet net;
+    /**
+     * the activation of the net while a pattern is processed
+     */
+    private ActivationState state;
+    /**
+     * the input patterns
+     */
+    private Pattern[] inputPattern;
+    /**
+     * the output patterns produced by the net
+     */
+    private Pattern[] outputPattern;
+    /**
+     * <code>counter</code> is used to keep track of the
+     * number of patterns that have already been processed.
+     */
+    private int counter;
+    /**
+     * <code>cancelled</code> is set by {@link #cancel()} and
+     * checked before every pattern. It is cleared when a run
+     * begins and ends, so a cancel only affects the run that is
+     * active when it is requested.
+     */
+    private volatile boolean cancelled;
+
+    //constructors
+    /**
+     * @param net
+     * @param inputPattern
+     */
+    public CompiledCoordinator(CompiledNet net, Pattern[] inputPattern) {
+        this.net = net;
+        this.state = net.newActivationState();
+        this.inputPattern = inputPattern;
+        this.outputPattern = new Pattern[inputPattern.length];
+        this.counter = 0;
+    }
+
+    /**
+     * @param net
+     * @param fileNameInputPattern
+     * @throws IOException
+     * @throws PatternCreateException
+     */
+    public CompiledCoordinator(CompiledNet net, String fileNameInputPattern) throws IOException, PatternCreateException {
+        this(net, PatternConverter.readPatternFile(fileNameInputPattern, net.getLayerSize(0)));
+    }
+
+    //methods
+    /**
+     * Starts presenting the net with the input patterns. If
+     * {@link #cancel()} is called, this method returns after
+     * the current pattern. Calling it again resumes with the
+     * next pattern.
+     * @throws PatternLayerMismatchException if an input pattern
+     * is smaller than the input layer
+     */
+    public void start() throws PatternLayerMismatchException {
+        cancelled = false;
+        try {
+            while(counter < inputPattern.length) {
+                if(cancelled) {
+                    return;
+                }
+                outputPattern[counter] = net.run(inputPattern[counter], state);
+                ++counter;
+            }
+        } finally {
+            cancelled = false;
+        }
+    }
+
+    /**
+     * Starts presenting the net with the input patterns, beginning
+     * with the pattern of the specified index.
+     * @param firstPattern
+     * @throws PatternLayerMismatchException if an input pattern
+     * is smaller than the input layer
+     * @throws BadArgumentException if there is no pattern of the
+     * specified index
+     */
+    public void start(int firstPattern) throws PatternLayerMismatchException, BadArgumentException {
+        if(firstPattern < 0 || firstPattern > inputPattern.length) {
+            throw new BadArgumentException("There is no pattern with the index "
+                    + firstPattern + "!");
+        }
+        counter = firstPattern;
+        start();
+    }
+
+    /**
+     * Makes a running {@link #start()} return after the current
+     * pattern. If no run is active, this method has no effect.
+     * It can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return the number of patterns that have already been
+     * processed
+     */
+    public int numberOfPatternsProcessed() {
+        return counter;
+    }
+
+    /**
+     * @return a {@link java.lang.String} containing '0's
+     * and '1's that represents the output patterns.
+     */
+    public String exportPattern() {
+        return PatternConverter.patternToStr(outputPattern, net.getLayerSize(net.getNumberOfLayers()-1));
+    }
+
+    /**
+     * Saves the produced output pattern to a file of
+     * the specified filename.
+     * @param filename
+     * @throws IOException
+     */
+    public void savePattern(String filename) throws IOException {
+        TextFiles.writeToFile(filename, exportPattern());
+    }
+
+    /**
+     * @return Returns the net.
+     */
+    public CompiledNet getNet() {
+        return net;
+    }
+
+    /**
+     * @return Returns the activation state, which contains the
+     * activation caused by the last pattern processed.
+     */
+    public ActivationState getState() {
+        return state;
+    }
+
+    /**
+     * @return Returns the input patterns.
+     */
+    public Pattern[] getInputPattern() {
+        return inputPattern;
+    }
+
+    /**
+     * @return Returns the output patterns produced by the net.
+     */
+    public Pattern[] getPattern() {
+        return outputPattern;
+    }
+}
@@ -0,0 +1,231 @@
+/* CompiledNet.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+
+/**
+ * CompiledNet is a read-only representation of a net of
+ * {@link BiNeuron}s that is optimized for presenting the net
+ * with input. It is produced by a {@link NetCompiler}.</p>
+ * <p>Instead of {@link Neuron} and {@link Synapse} objects
+ * it stores the net in a few primitive arrays: all neurons
+ * are numbered layer by layer, starting with the input layer,
+ * and the outgoing synapses of every neuron are stored one
+ * after the other (compressed sparse row form).</p>
+ * <p>A CompiledNet processes patterns exactly the way
+ * {@link Coordinator#start()} does, so it produces the same
+ * output patterns. It does not support training, changes to
+ * the original net after compiling are not reflected.</p>
+ * <p>A CompiledNet only describes the topology of the net.
+ * The activation of the neurons while a pattern is processed
+ * is kept in an {@link ActivationState}, so one CompiledNet can
+ * be used by any number of threads at the same time as long as
+ * every thread uses its own ActivationState.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see NetCompiler
+ */
+public class CompiledNet {
+    //attributes
+    /**
+     * <code>layerStart[i]</code> is the number of the first
+     * neuron of layer i. The last entry is the number of
+     * neurons in the net.
+     */
+    final int[] layerStart;
+    /**
+     * the treshold values of all neurons
+     */
+    final float[] sigma;
+    /**
+     * <code>synapseStart[n]</code> is the index of the first
+     * outgoing synapse of neuron n in {@link #synapseTarget}
+     * and {@link #synapseWeight}. The last entry is the
+     * number of synapses in the net.
+     */
+    final int[] synapseStart;
+    /**
+     * the number of the target neuron of every synapse
+     */
+    final int[] synapseTarget;
+    /**
+     * the weight of every synapse
+     */
+    final float[] synapseWeight;
+
+    //constructors
+    /**
+     * @param layerStart
+     * @param sigma
+     * @param synapseStart
+     * @param synapseTarget
+     * @param synapseWeight
+     */
+    CompiledNet(int[] layerStart, float[] sigma, int[] synapseStart,
+            int[] synapseTarget, float[] synapseWeight) {
+        this.layerStart = layerStart;
+        this.sigma = sigma;
+        this.synapseStart = synapseStart;
+        this.synapseTarget = synapseTarget;
+        this.synapseWeight = synapseWeight;
+    }
+
+    //methods
+    /**
+     * @return a new {@link ActivationState} that can be used
+     * with this net
+     */
+    public ActivationState newActivationState() {
+        return new ActivationState(sigma.length);
+    }
+
+    /**
+     * Presents the net with the specified input pattern.
+     * @param input
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(Pattern input) throws PatternLayerMismatchException {
+        return run(input, newActivationState());
+    }
+
+    /**
+     * Presents the net with the specified input pattern using
+     * the specified {@link ActivationState}. The state is cleared
+     * before the pattern is processed; afterwards it contains the
+     * activation the pattern caused.
+     * @param input
+     * @param state an ActivationState created by
+     * {@link #newActivationState()}
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(Pattern input, ActivationState state) throws PatternLayerMismatchException {
+        checkInput(input);
+        checkState(state);
+        state.clear();
+        propagate(input.entries, state.net, state.fired);
+        return readOutput(state.fired);
+    }
+
+    /**
+     * Presents the net with the specified input patterns one
+     * after the other.
+     * @param input
+     * @return the output patterns produced by the net, in the
+     * order of the input patterns
+     * @throws PatternLayerMismatchException if a pattern is
+     * smaller than the input layer
+     */
+    public Pattern[] run(Pattern[] input) throws PatternLayerMismatchException {
+        ActivationState state = newActivationState();
+        Pattern[] output = new Pattern[input.length];
+        for(int i=0;i<input.length;++i) {
+            output[i] = run(input[i], state);
+        }
+        return output;
+    }
+
+    /**
+     * Does the actual work. The neurons of the input layer that
+     * correspond to <code>true</code> entries fire, then every
+     * other neuron fires if its net activation reaches sigma.
+     * The neurons are visited in the same order
+     * {@link Coordinator#start()} visits them, so activation
+     * is summed up in the same order, too.
+     * @param input
+     * @param net must be filled with <code>0</code>
+     * @param fired must be filled with <code>false</code>
+     */
+    void propagate(boolean[] input, float[] net, boolean[] fired) {
+        int n;
+        int inputSize = layerStart[1];
+        for(n=0;n<inputSize;++n) {
+            if(input[n]) {
+                fire(n, net, fired);
+            }
+        }
+        for(n=inputSize;n<sigma.length;++n) {
+            if(net[n]>=sigma[n]) {
+                fire(n, net, fired);
+            }
+        }
+    }
+
+    private void fire(int n, float[] net, boolean[] fired) {
+        int end = synapseStart[n+1];
+        for(int k=synapseStart[n];k<end;++k) {
+            net[synapseTarget[k]] += synapseWeight[k];
+        }
+        net[n] = 0;
+        fired[n] = true;
+    }
+
+    void checkInput(Pattern input) throws PatternLayerMismatchException {
+        if(input.entries.length < layerStart[1]) {
+            throw new PatternLayerMismatchException("The size of the input pattern " +
+                    "doesn't match the size of the input layer!");
+        }
+    }
+
+    void checkState(ActivationState state) {
+        if(state.net.length != sigma.length) {
+            throw new IllegalArgumentException("The activation state " +
+                    "doesn't belong to this net!");
+        }
+    }
+
+    Pattern readOutput(boolean[] fired) {
+        int first = layerStart[layerStart.length-2];
+        boolean[] entries = new boolean[sigma.length-first];
+        System.arraycopy(fired, first, entries, 0, entries.length);
+        return new Pattern(entries);
+    }
+
+    /**
+     * @return the number of layers
+     */
+    public int getNumberOfLayers() {
+        return layerStart.length-1;
+    }
+
+    /**
+     * @param layerID
+     * @return the number of neurons in the specified layer
+     */
+    public int getLayerSize(int layerID) {
+        return layerStart[layerID+1]-layerStart[layerID];
+    }
+
+    /**
+     * @return the number of neurons in the net
+     */
+    public int getNumberOfNeurons() {
+        return sigma.length;
+    }
+
+    /**
+     * @return the number of synapses in the net
+     */
+    public int getNumberOfSynapses() {
+        return synapseTarget.length;
+    }
+}
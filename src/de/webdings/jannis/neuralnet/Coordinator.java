@@ -17,8 +17,11 @@ package de.webdings.jannis.neuralnet;
 
 import java.io.IOException;
 
+import de.webdings.jannis.events.RunEvent;
+import de.webdings.jannis.exceptions.BadArgumentException;
 import de.webdings.jannis.exceptions.PatternCreateException;
 import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
 import de.webdings.tools.files.TextFiles;
 
 /**
@@ -61,6 +64,18 @@ public class Coordinator {
      * See {@link PatternReader}
      */
     public PatternReader reader;
+    /**
+     * <code>cancelled</code> is set by {@link #cancel()} and
+     * checked before every pattern. It is cleared when a run
+     * begins and ends, so a cancel only affects the run that is
+     * active when it is requested.
+     */
+    private volatile boolean cancelled;
+    /**
+     * is told about the progress of the run, may be
+     * <code>null</code>
+     */
+    protected RunListener listener;
     //constructors
     /**
      * @param net
@@ -78,7 +93,81 @@ public class Coordinator {
     public Coordinator(Neuron[][] layers, Pattern[] inputPattern) {
     	this.layers = layers;
     	this.giver = new PatternGiver(layers[0], inputPattern);
-    	this.reader = new PatternReader(layers[layers.length-1], giver.getPattern().length);
+    	this.reader = new PatternReader(layers[layers.length-1], giver.numberOfPatterns());
+    }
+    /**
+     * @param net
+     * @param inputPattern
+     */
+    public Coordinator(NeuralNet net, PackedPattern[] inputPattern) {
+        this(net.getLayers(), inputPattern);
+    }
+
+    /**
+     * @param layers
+     * @param inputPattern
+     */
+    public Coordinator(Neuron[][] layers, PackedPattern[] inputPattern) {
+        this.layers = layers;
+        this.giver = new PatternGiver(layers[0], inputPattern);
+        this.reader = new PatternReader(layers[layers.length-1], giver.numberOfPatterns(), true);
+    }
+    /**
+     * Constructs a Coordinator that decodes the input patterns
+     * one at a time from the specified {@link PatternSource},
+     * e.g. a {@link MappedPatternFile}. The output patterns are
+     * stored packed.
+     * @param net
+     * @param inputPattern
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     */
+    public Coordinator(NeuralNet net, PatternSource inputPattern) throws PatternLayerMismatchException {
+        this(net.getLayers(), inputPattern);
+    }
+
+    /**
+     * See {@link #Coordinator(NeuralNet, PatternSource)}
+     * @param layers
+     * @param inputPattern
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     */
+    public Coordinator(Neuron[][] layers, PatternSource inputPattern) throws PatternLayerMismatchException {
+        this.layers = layers;
+        this.giver = new PatternGiver(layers[0], inputPattern);
+        this.reader = new PatternReader(layers[layers.length-1], giver.numberOfPatterns(), true);
+    }
+    /**
+     * Constructs a Coordinator that decodes the input patterns
+     * one at a time from the specified {@link PatternSource} and
+     * passes every output pattern on to the specified
+     * {@link PatternSink}. So the memory needed doesn't depend
+     * on the number of patterns.
+     * @param net
+     * @param inputPattern
+     * @param outputSink
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     */
+    public Coordinator(NeuralNet net, PatternSource inputPattern, PatternSink outputSink) 
+            throws PatternLayerMismatchException {
+        this(net.getLayers(), inputPattern, outputSink);
+    }
+
+    /**
+     * See {@link #Coordinator(NeuralNet, PatternSource, PatternSink)}
+     * @param layers
+     * @param inputPattern
+     * @param outputSink
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     */
+    public Coordinator(Neuron[][] layers, PatternSource inputPattern, PatternSink outputSink) 
+            throws PatternLayerMismatchException {
+        this.layers = layers;
+        this.giver = new PatternGiver(layers[0], inputPattern);
+        this.reader = new PatternReader(layers[layers.length-1], giver.numberOfPatterns(), outputSink);
     }
     /**
      * @param net
@@ -99,7 +188,7 @@ public class Coordinator {
     public Coordinator(Neuron[][] layers, String fileNameInputPattern) throws IOException, PatternCreateException  {
       this.layers = layers;
       this.giver = new PatternGiver(layers[0], fileNameInputPattern);
-      this.reader = new PatternReader(layers[layers.length-1], giver.getPattern().length);
+      this.reader = new PatternReader(layers[layers.length-1], giver.numberOfPatterns());
     }
 
     /**
@@ -123,11 +212,163 @@ public class Coordinator {
     }
     //methods
     /**
-     * Starts presenting the net with the input pattern
+     * Starts presenting the net with the input pattern. The
+     * patterns are processed in a loop, so any number of
+     * patterns can be processed.</p>
+     * <p>If {@link #cancel()} is called, this method returns
+     * after the current pattern. Calling it again resumes 
+     * with the next pattern.</p>
+     * <p>If the output is passed on to a {@link PatternSink}, the
+     * sink is flushed when this method returns, so the patterns
+     * read so far are passed on even if the run ends early.
      * 
      * @throws PatternGiverReaderCommunicationException
      */
     public void start() throws PatternGiverReaderCommunicationException {
+      RunEvent event = new RunEvent();
+      event.begin();
+      int first = reader.numberOfPatternsRead();
+      cancelled = false;
+      try {
+        Throwable failure = null;
+        try {
+          run();
+        } catch (Throwable e) {
+          failure = e;
+          throw e;
+        } finally {
+          flushReader(failure);
+        }
+      } finally {
+        cancelled = false;
+        if(event.shouldCommit()) {
+          event.firstPattern = first;
+          event.patternsProcessed = reader.numberOfPatternsRead() - first;
+          event.numberOfPatterns = reader.numberOfPatternsToRead;
+          event.layers = layers.length;
+          for(int i=0;i<layers.length;++i) {
+            event.neurons += layers[i].length;
+          }
+          event.commit();
+        }
+      }
+    }
+
+    /**
+     * Flushes the {@link PatternSink} of the reader, if there is
+     * one. If the run has already failed, an exception thrown
+     * while flushing is added to the exception of the run as
+     * suppressed, so it doesn't hide it.
+     * @param failure the exception the run has failed with, or
+     * <code>null</code>
+     * @throws PatternGiverReaderCommunicationException
+     */
+    private void flushReader(Throwable failure) throws PatternGiverReaderCommunicationException {
+      try {
+        reader.flush();
+      } catch (PatternGiverReaderCommunicationException e) {
+        if(failure == null) {
+          throw e;
+        }
+        failure.addSuppressed(e);
+      }
+    }
+
+    /**
+     * Presents the net with the remaining input patterns and
+     * tells the {@link RunListener} about it.
+     * @throws PatternGiverReaderCommunicationException
+     */
+    private void run() throws PatternGiverReaderCommunicationException {
+      if(listener == null) {
+        try {
+          while(reader.numberOfPatternsRead() < reader.numberOfPatternsToRead) {
+            if(cancelled) {
+              return;
+            }
+            nextPattern();
+          }
+        } finally {
+          runEnded();
+        }
+        return;
+      }
+      int first = reader.numberOfPatternsRead();
+      long startTime = System.nanoTime();
+      listener.runStarted(first, reader.numberOfPatternsToRead);
+      try {
+        while(reader.numberOfPatternsRead() < reader.numberOfPatternsToRead) {
+          if(cancelled) {
+            return;
+          }
+          nextPattern();
+        }
+      } finally {
+        try {
+          runEnded();
+        } finally {
+          listener.runFinished(reader.numberOfPatternsRead() - first, System.nanoTime() - startTime);
+        }
+      }
+    }
+
+    /**
+     * Starts presenting the net with the input pattern, beginning
+     * with the pattern of the specified index. Patterns before
+     * that index are skipped. If the output is passed on to a
+     * {@link PatternSink}, the patterns already passed on can't
+     * be read again, so the run can only be resumed with the
+     * next pattern.
+     * @param firstPattern index of the first pattern to present
+     * the net with
+     * @throws PatternGiverReaderCommunicationException
+     * @throws BadArgumentException if there is no pattern of the
+     * specified index, or if the output is passed on to a
+     * PatternSink and the index isn't the one of the next pattern
+     */
+    public void start(int firstPattern) throws PatternGiverReaderCommunicationException, BadArgumentException {
+      if(firstPattern < 0 || firstPattern > reader.numberOfPatternsToRead) {
+        throw new BadArgumentException("There is no pattern with the index " 
+                + firstPattern + "!");
+      }
+      if(reader.getSink() != null && firstPattern != reader.numberOfPatternsRead()) {
+        throw new BadArgumentException("The output is passed on to a PatternSink, " +
+                "the run can only be resumed with the pattern " 
+                + reader.numberOfPatternsRead() + "!");
+      }
+      clearAll();
+      moveTo(firstPattern);
+      start();
+    }
+
+    /**
+     * Makes a running {@link #start()} return after the current
+     * pattern. If no run is active, or the run has already
+     * checked for the last time, this method has no effect. It
+     * can be called from any thread.
+     */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    /**
+     * @return the number of patterns that have already been
+     * processed
+     */
+    public int numberOfPatternsProcessed() {
+      return reader.numberOfPatternsRead();
+    }
+
+    /**
+     * Presents the net with the next pattern and reads the
+     * output.
+     * @throws PatternGiverReaderCommunicationException
+     */
+    protected void nextPattern() throws PatternGiverReaderCommunicationException {
+      if(listener != null) {
+        nextPatternObserved();
+        return;
+      }
       int i,j;
       giver.nextPattern();
       for(i=1;i<layers.length;++i) {
@@ -138,17 +379,91 @@ public class Coordinator {
         }
       }
       reader.readPattern();
+      patternRead();
       if(giver.numberSent() == reader.numberOfPatternsRead()) {
         clearAll();
-        if(reader.numberOfPatternsRead() < reader.numberOfPatternsToRead){
-          start();
+      } else {
+        throw new PatternGiverReaderCommunicationException("There was an error in the communication between " +
+                "PatternGiver and PatternReader!");
+      }
+    }
+
+    /**
+     * Does the same as {@link #nextPattern()} and tells the
+     * {@link RunListener} about it.
+     * @throws PatternGiverReaderCommunicationException
+     */
+    private void nextPatternObserved() throws PatternGiverReaderCommunicationException {
+      int i,j;
+      int index = reader.numberOfPatternsRead();
+      long startTime = System.nanoTime();
+      listener.patternStarted(index);
+      giver.nextPattern();
+      layerProcessed(index, 0);
+      for(i=1;i<layers.length;++i) {
+        for (j = 0; j < layers[i].length; ++j) {
+          if (layers[i][j].tresholdReached()) {
+            layers[i][j].fire();
+          }
         }
+        layerProcessed(index, i);
+      }
+      reader.readPattern();
+      patternRead();
+      listener.patternProcessed(index, System.nanoTime() - startTime);
+      if(giver.numberSent() == reader.numberOfPatternsRead()) {
+        clearAll();
       } else {
         throw new PatternGiverReaderCommunicationException("There was an error in the communication between " +
                 "PatternGiver and PatternReader!");
       }
     }
 
+    /**
+     * Counts the neurons of a layer that have fired and the
+     * synapses they passed their activation on to and tells
+     * the {@link RunListener}.
+     */
+    private void layerProcessed(int index, int layerID) {
+      int fired = 0;
+      int synapses = 0;
+      Neuron[] layer = layers[layerID];
+      for(int j=0;j<layer.length;++j) {
+        if(layer[j].hasFired()) {
+          ++fired;
+          synapses += layer[j].getNumberOfConnections();
+        }
+      }
+      listener.layerProcessed(index, layerID, fired, synapses);
+    }
+
+    /**
+     * Is called after the output of a pattern has been read,
+     * before the net is cleared. It doesn't do anything
+     * here, subclasses can override it.
+     * @throws PatternGiverReaderCommunicationException
+     */
+    protected void patternRead() throws PatternGiverReaderCommunicationException {
+    }
+
+    /**
+     * Is called when a run ends, whether all patterns have been
+     * processed or not, before the {@link RunListener} is told.
+     * It doesn't do anything here, subclasses can override it.
+     */
+    protected void runEnded() {
+    }
+
+    /**
+     * Sets the {@link PatternGiver} and the {@link PatternReader}
+     * to the pattern of the specified index.
+     * @param index
+     */
+    protected void moveTo(int index) {
+      giver.setNumberSent(index);
+      reader.setNumberOfPatternsRead(index);
+    }
+
     /**
      * Clears all residual activation and memory functions
      * of the neurons in the coordinated net by calling the
@@ -170,9 +485,51 @@ public class Coordinator {
      * Saves the produced output pattern to a file of
      * the specified filename.
      * @param filename
-     * @throws IOException
+     * @throws IOException if the file can't be written or if the
+     * output has been passed on to a {@link PatternSink}
      */
     public void savePattern(String filename) throws IOException {
-      TextFiles.writeToFile(filename, PatternConverter.patternToStr(reader.getPattern(), layers[layers.length-1].length));
+      if(reader.getSink() != null) {
+        throw new IOException("The output has been passed on to a PatternSink " +
+                "and can't be saved!");
+      }
+      TextFiles.writeToFile(filename, reader.exportPattern());
+    }
+
+    /**
+     * Saves the produced output pattern to a binary pattern
+     * file of the specified filename, see
+     * {@link BinaryPatternFile}.
+     * @param filename
+     * @throws IOException if the file can't be written or if the
+     * output has been passed on to a {@link PatternSink}
+     */
+    public void savePatternBinary(String filename) throws IOException {
+      if(reader.getSink() != null) {
+        throw new IOException("The output has been passed on to a PatternSink " +
+                "and can't be saved!");
+      }
+      BinaryPatternWriter out = new BinaryPatternWriter(filename, reader.getOutputLayer().length);
+      try {
+        out.write(reader.getPackedPattern());
+      } finally {
+        out.close();
+      }
+    }
+
+    /**
+     * @return Returns the listener that is told about the
+     * progress of the run, or <code>null</code>.
+     */
+    public RunListener getRunListener() {
+      return listener;
+    }
+
+    /**
+     * @param listener The listener to be told about the
+     * progress of the run. <code>null</code> removes it.
+     */
+    public void setRunListener(RunListener listener) {
+      this.listener = listener;
     }
 }
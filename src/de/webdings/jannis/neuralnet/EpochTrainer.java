@@ -0,0 +1,325 @@
+/* EpochTrainer.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import de.webdings.jannis.events.EpochEvent;
+import de.webdings.jannis.exceptions.BadArgumentException;
+import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
+
+/**
+ * EpochTrainer trains a net by letting a
+ * {@link TrainingCoordinator} pass over the training patterns
+ * again and again. Every pass is called an epoch. After every
+ * epoch the number of output entries that differed from the
+ * desired output (see {@link Teacher#getBitErrors()}) is
+ * recorded.</p>
+ * <p>Training stops as soon as
+ * <ul>
+ * <li>an epoch produced no errors ({@link #CONVERGED}),</li>
+ * <li>the error hasn't improved for {@link #getPatience()}
+ * epochs ({@link #PLATEAU}),</li>
+ * <li>{@link #getMaxEpochs()} epochs have been run
+ * ({@link #MAX_EPOCHS}),</li>
+ * <li>the time budget has been used up ({@link #TIME_BUDGET}),
+ * which is checked after every epoch, or</li>
+ * <li>{@link #cancel()} has been called ({@link #CANCELLED}).</li>
+ * </ul>
+ * The error of an epoch is counted while the net is being
+ * trained, i.e. every pattern is compared before the weights
+ * are changed because of it.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see TrainingCoordinator
+ */
+public class EpochTrainer {
+    //attributes
+    /**
+     * Training stopped because an epoch produced no errors.
+     */
+    public static final int CONVERGED = 0;
+    /**
+     * Training stopped because the error didn't improve.
+     */
+    public static final int PLATEAU = 1;
+    /**
+     * Training stopped because the maximum number of epochs
+     * has been run.
+     */
+    public static final int MAX_EPOCHS = 2;
+    /**
+     * Training stopped because the time budget has been
+     * used up.
+     */
+    public static final int TIME_BUDGET = 3;
+    /**
+     * Training stopped because {@link #cancel()} was called.
+     */
+    public static final int CANCELLED = 4;
+
+    private TrainingCoordinator coordinator;
+    /**
+     * the maximum number of epochs
+     */
+    private int maxEpochs;
+    /**
+     * the number of epochs without improvement after which
+     * training stops. <code>0</code> disables this.
+     */
+    private int patience;
+    /**
+     * the time budget in milliseconds. <code>0</code> means
+     * there is no time budget.
+     */
+    private long timeBudget;
+    /**
+     * the error of every epoch run so far
+     */
+    private long[] errors;
+    private int epoch;
+    /**
+     * {@link #epoch} as of the end of the last epoch, for other
+     * threads. {@link #errors} is written before it, so a thread
+     * that reads it sees the errors of all these epochs.
+     */
+    private volatile int publishedEpoch;
+    /**
+     * the error of the last epoch, for other threads
+     */
+    private volatile long lastError;
+    private volatile boolean cancelled;
+    /**
+     * is told about the error of every epoch, may be
+     * <code>null</code>
+     */
+    private RunListener listener;
+
+    //constructors
+    /**
+     * Constructs an EpochTrainer that runs at most 1000 epochs
+     * and stops if the error hasn't improved for 10 epochs.
+     * @param coordinator
+     * @throws BadArgumentException if the coordinator passes its
+     * output on to a {@link PatternSink}, because every epoch
+     * starts again with the first pattern and the patterns
+     * already passed on can't be read again
+     */
+    public EpochTrainer(TrainingCoordinator coordinator) throws BadArgumentException {
+        if(coordinator.reader.getSink() != null) {
+            throw new BadArgumentException("The output of the coordinator is passed on to a " +
+                    "PatternSink, so it can't be trained for several epochs!");
+        }
+        this.coordinator = coordinator;
+        this.maxEpochs = 1000;
+        this.patience = 10;
+        this.timeBudget = 0;
+        this.errors = new long[16];
+        this.lastError = -1;
+    }
+
+    //methods
+    /**
+     * Trains the net until one of the stop conditions is met.
+     * Calling this method again continues training where it
+     * stopped; the counters of epochs and errors are not reset.
+     * @return the reason training stopped, i.e. one of
+     * {@link #CONVERGED}, {@link #PLATEAU}, {@link #MAX_EPOCHS},
+     * {@link #TIME_BUDGET} and {@link #CANCELLED}
+     * @throws PatternGiverReaderCommunicationException
+     */
+    public int train() throws PatternGiverReaderCommunicationException {
+        long deadline = timeBudget > 0 ? System.currentTimeMillis() + timeBudget : Long.MAX_VALUE;
+        int start = epoch;
+        int epochsWithoutImprovement = 0;
+        long best = Long.MAX_VALUE;
+        Teacher teacher = coordinator.teacher;
+        int numberOfPatterns = coordinator.reader.getNumberOfPatternsToRead();
+        //a cancel only affects the training that is active
+        //when it is requested
+        cancelled = false;
+        try {
+            while(true) {
+                if(cancelled) {
+                    return CANCELLED;
+                }
+                if(epoch - start >= maxEpochs) {
+                    return MAX_EPOCHS;
+                }
+                teacher.resetBitErrors();
+                EpochEvent event = new EpochEvent();
+                event.begin();
+                long startTime = listener != null ? System.nanoTime() : 0;
+                try {
+                    coordinator.start(0);
+                } catch (BadArgumentException e) {
+                    //there is always a pattern with the index 0, and
+                    //the constructor has made sure there is no sink
+                    throw new IllegalStateException(e);
+                }
+                if(coordinator.numberOfPatternsProcessed() < numberOfPatterns) {
+                    //the epoch has been cancelled and doesn't count
+                    return CANCELLED;
+                }
+                long error = teacher.getBitErrors();
+                if(epoch == errors.length) {
+                    long[] buffer = new long[epoch*2];
+                    System.arraycopy(errors, 0, buffer, 0, epoch);
+                    errors = buffer;
+                }
+                errors[epoch++] = error;
+                lastError = error;
+                publishedEpoch = epoch;
+                if(event.shouldCommit()) {
+                    event.epoch = epoch-1;
+                    event.error = error;
+                    event.patterns = numberOfPatterns;
+                    event.commit();
+                }
+                if(listener != null) {
+                    listener.epochFinished(epoch-1, error, System.nanoTime() - startTime);
+                }
+                if(error == 0) {
+                    return CONVERGED;
+                }
+                if(error < best) {
+                    best = error;
+                    epochsWithoutImprovement = 0;
+                } else if(patience > 0 && ++epochsWithoutImprovement >= patience) {
+                    return PLATEAU;
+                }
+                if(System.currentTimeMillis() >= deadline) {
+                    return TIME_BUDGET;
+                }
+            }
+        } finally {
+            cancelled = false;
+        }
+    }
+
+    /**
+     * Makes a running {@link #train()} return as soon as the
+     * current pattern has been processed. The current epoch is
+     * not recorded. If no training is active, this method has
+     * no effect. It can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        coordinator.cancel();
+    }
+
+    /**
+     * @return the number of epochs run so far. This method can
+     * be called from any thread.
+     */
+    public int getEpoch() {
+        return publishedEpoch;
+    }
+
+    /**
+     * @return the error of every epoch run so far, i.e. the
+     * number of output entries that differed from the desired
+     * output. This method can be called from any thread.
+     */
+    public long[] getErrors() {
+        int n = publishedEpoch;
+        long[] result = new long[n];
+        System.arraycopy(errors, 0, result, 0, n);
+        return result;
+    }
+
+    /**
+     * @return the error of the last epoch, or <code>-1</code>
+     * if no epoch has been run. This method can be called from
+     * any thread.
+     */
+    public long getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return Returns the listener that is told about the error
+     * of every epoch, or <code>null</code>.
+     */
+    public RunListener getRunListener() {
+        return listener;
+    }
+
+    /**
+     * @param listener The listener to be told about the error
+     * of every epoch. <code>null</code> removes it. To be told
+     * about every pattern as well, attach it to the
+     * {@link TrainingCoordinator}, too.
+     */
+    public void setRunListener(RunListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return Returns the coordinator.
+     */
+    public TrainingCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * @return Returns the maximum number of epochs a call of
+     * {@link #train()} runs.
+     */
+    public int getMaxEpochs() {
+        return maxEpochs;
+    }
+
+    /**
+     * @param maxEpochs The maximum number of epochs a call of
+     * {@link #train()} runs.
+     */
+    public void setMaxEpochs(int maxEpochs) {
+        this.maxEpochs = maxEpochs;
+    }
+
+    /**
+     * @return Returns the number of epochs without improvement
+     * after which training stops.
+     */
+    public int getPatience() {
+        return patience;
+    }
+
+    /**
+     * @param patience The number of epochs without improvement
+     * after which training stops. <code>0</code> disables this.
+     */
+    public void setPatience(int patience) {
+        this.patience = patience;
+    }
+
+    /**
+     * @return Returns the time budget in milliseconds.
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @param timeBudget The time budget of a call of
+     * {@link #train()} in milliseconds. <code>0</code> means
+     * there is no time budget.
+     */
+    public void setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+}
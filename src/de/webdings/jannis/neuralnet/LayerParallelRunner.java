@@ -0,0 +1,263 @@
+/* LayerParallelRunner.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+
+/**
+ * LayerParallelRunner presents a {@link CompiledNet} with a
+ * single pattern and splits the neurons of every wide layer
+ * between the workers of a {@link ForkJoinPool}. This lowers
+ * the time needed for one pattern on nets with very wide
+ * layers.</p>
+ * <p>Instead of letting every neuron that fires pass its
+ * activation on to its targets, every neuron collects the
+ * activation from the neurons of lower layers that have
+ * fired. So a worker only writes to the neurons it is
+ * responsible for. The incoming synapses of a neuron are
+ * sorted by their source, so activation is summed up in the
+ * same order as in {@link Coordinator#start()} and the
+ * output is the same.</p>
+ * <p>This only works for feed-forward nets, where every
+ * synapse leads to a higher layer. Other nets are processed
+ * by a single thread.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet
+ */
+public class LayerParallelRunner {
+    //attributes
+    /**
+     * the net to be presented with input
+     */
+    private CompiledNet net;
+    /**
+     * the pool the neurons of a layer are processed in
+     */
+    private ForkJoinPool pool;
+    /**
+     * <code>incomingStart[n]</code> is the index of the first
+     * incoming synapse of neuron n in {@link #incomingSource}
+     * and {@link #incomingWeight}.
+     */
+    private int[] incomingStart;
+    /**
+     * the number of the source neuron of every incoming synapse
+     */
+    private int[] incomingSource;
+    /**
+     * the weight of every incoming synapse
+     */
+    private float[] incomingWeight;
+    /**
+     * <code>true</code> if every synapse leads to a higher layer
+     */
+    private boolean feedForward;
+    /**
+     * the maximum number of neurons processed by a single task.
+     * Layers that are not wider than this are processed by the
+     * calling thread.
+     */
+    private int blockSize;
+
+    //constructors
+    /**
+     * Constructs a LayerParallelRunner that uses the common
+     * {@link ForkJoinPool}.
+     * @param net
+     */
+    public LayerParallelRunner(CompiledNet net) {
+        this(net, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param net
+     * @param pool the pool the neurons of a layer are processed in
+     */
+    public LayerParallelRunner(CompiledNet net, ForkJoinPool pool) {
+        this.net = net;
+        this.pool = pool;
+        this.blockSize = 1024;
+        index();
+    }
+
+    //methods
+    /**
+     * Builds the incoming synapses of every neuron from the
+     * outgoing synapses stored in the net. Sources are visited
+     * in ascending order, so every list is sorted by source.
+     */
+    private void index() {
+        int numberOfNeurons = net.sigma.length;
+        int[] layerOf = new int[numberOfNeurons];
+        for(int i=0;i<net.layerStart.length-1;++i) {
+            for(int n=net.layerStart[i];n<net.layerStart[i+1];++n) {
+                layerOf[n] = i;
+            }
+        }
+        feedForward = true;
+        incomingStart = new int[numberOfNeurons+1];
+        for(int k=0;k<net.synapseTarget.length;++k) {
+            ++incomingStart[net.synapseTarget[k]+1];
+        }
+        for(int n=0;n<numberOfNeurons;++n) {
+            incomingStart[n+1] += incomingStart[n];
+        }
+        int[] next = new int[numberOfNeurons];
+        System.arraycopy(incomingStart, 0, next, 0, numberOfNeurons);
+        incomingSource = new int[net.synapseTarget.length];
+        incomingWeight = new float[net.synapseTarget.length];
+        for(int n=0;n<numberOfNeurons;++n) {
+            for(int k=net.synapseStart[n];k<net.synapseStart[n+1];++k) {
+                int target = net.synapseTarget[k];
+                if(layerOf[target] <= layerOf[n]) {
+                    feedForward = false;
+                }
+                incomingSource[next[target]] = n;
+                incomingWeight[next[target]] = net.synapseWeight[k];
+                ++next[target];
+            }
+        }
+    }
+
+    /**
+     * Presents the net with the specified input pattern.
+     * @param input
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(Pattern input) throws PatternLayerMismatchException {
+        return run(input, net.newActivationState());
+    }
+
+    /**
+     * Presents the net with the specified input pattern using
+     * the specified {@link ActivationState}.
+     * @param input
+     * @param state an ActivationState created by
+     * {@link CompiledNet#newActivationState()}
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(Pattern input, ActivationState state) throws PatternLayerMismatchException {
+        if(!feedForward) {
+            return net.run(input, state);
+        }
+        net.checkInput(input);
+        net.checkState(state);
+        state.clear();
+        int inputSize = net.layerStart[1];
+        for(int n=0;n<inputSize;++n) {
+            state.fired[n] = input.entries[n];
+        }
+        for(int i=1;i<net.layerStart.length-1;++i) {
+            int from = net.layerStart[i];
+            int to = net.layerStart[i+1];
+            if(to - from > blockSize) {
+                pool.invoke(new Gather(state, from, to));
+            } else {
+                gather(state, from, to);
+            }
+        }
+        return net.readOutput(state.fired);
+    }
+
+    /**
+     * Sums up the activation of the neurons from
+     * <code>from</code> (inclusive) to <code>to</code>
+     * (exclusive) and lets them fire if it reaches sigma.
+     */
+    private void gather(ActivationState state, int from, int to) {
+        float[] activation = state.net;
+        boolean[] fired = state.fired;
+        for(int n=from;n<to;++n) {
+            float sum = 0;
+            int end = incomingStart[n+1];
+            for(int k=incomingStart[n];k<end;++k) {
+                if(fired[incomingSource[k]]) {
+                    sum += incomingWeight[k];
+                }
+            }
+            if(sum>=net.sigma[n]) {
+                fired[n] = true;
+                activation[n] = 0;
+            } else {
+                activation[n] = sum;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the neurons of a layer can be
+     * processed in parallel, i.e. if every synapse of the net
+     * leads to a higher layer
+     */
+    public boolean isFeedForward() {
+        return feedForward;
+    }
+
+    /**
+     * @return Returns the block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @param blockSize The maximum number of neurons processed by
+     * a single task. Layers that are not wider than this are
+     * processed by the calling thread.
+     */
+    public void setBlockSize(int blockSize) {
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be at least 1!");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Gather processes a range of neurons of a single layer.
+     * Ranges that are too large are split in halves.
+     */
+    private class Gather extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ActivationState state;
+        private final int from;
+        private final int to;
+
+        Gather(ActivationState state, int from, int to) {
+            this.state = state;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if(to - from <= blockSize) {
+                gather(state, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Gather(state, from, middle), new Gather(state, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/* MappedPatternFile.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import de.webdings.jannis.events.PatternFileLoadEvent;
+import de.webdings.jannis.exceptions.PatternCreateException;
+
+/**
+ * MappedPatternFile is a {@link PatternSource} that reads
+ * patterns from a file of '0's and '1's, the format written by
+ * {@link Coordinator#savePattern(String)}. The file is mapped
+ * into memory and a pattern is only decoded when it is asked
+ * for, so pattern files of any size can be processed without
+ * keeping them on the heap.</p>
+ * <p>The file is mapped in chunks of at most 2 GB, each of
+ * which contains whole patterns. Characters at the end of the
+ * file that don't make up a whole pattern are ignored, just
+ * like {@link PatternConverter#strToPattern(String, int)} does.
+ * Characters other than '0' and '1' are only detected when the
+ * pattern containing them is decoded.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see PatternGiver#PatternGiver(Neuron[], PatternSource)
+ */
+public class MappedPatternFile implements PatternSource {
+    //attributes
+    private int patternSize;
+    private int numberOfPatterns;
+    /**
+     * the number of patterns in every chunk but the last
+     */
+    private int patternsPerChunk;
+    private MappedByteBuffer[] chunks;
+
+    //constructors
+    /**
+     * @param fileName
+     * @param patternSize the size of the patterns (usually the
+     * number of neurons contained in the input or output layer)
+     * @throws IOException
+     */
+    public MappedPatternFile(String fileName, int patternSize) throws IOException {
+        this(new File(fileName), patternSize);
+    }
+
+    /**
+     * @param file
+     * @param patternSize the size of the patterns (usually the
+     * number of neurons contained in the input or output layer)
+     * @throws IOException
+     */
+    public MappedPatternFile(File file, int patternSize) throws IOException {
+        if(patternSize < 1) {
+            throw new IllegalArgumentException("The pattern size must be at least 1!");
+        }
+        this.patternSize = patternSize;
+        PatternFileLoadEvent event = new PatternFileLoadEvent();
+        event.begin();
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long patterns = channel.size() / patternSize;
+            if(patterns > Integer.MAX_VALUE) {
+                throw new IOException(file + " contains too many patterns!");
+            }
+            numberOfPatterns = (int) patterns;
+            patternsPerChunk = Math.max(1, Integer.MAX_VALUE / patternSize);
+            int numberOfChunks = (int) ((patterns + patternsPerChunk - 1) / patternsPerChunk);
+            chunks = new MappedByteBuffer[numberOfChunks];
+            for(int c=0;c<numberOfChunks;++c) {
+                long first = (long) c * patternsPerChunk;
+                long count = Math.min(patternsPerChunk, patterns - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        first * patternSize, count * patternSize);
+            }
+        } finally {
+            //the mapping stays valid after the file has been closed
+            raf.close();
+        }
+        if(event.shouldCommit()) {
+            event.file = file.getPath();
+            event.format = "mapped text";
+            event.patterns = numberOfPatterns;
+            event.patternSize = patternSize;
+            event.bytes = file.length();
+            event.commit();
+        }
+    }
+
+    //methods
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#numberOfPatterns()
+     */
+    public int numberOfPatterns() {
+        return numberOfPatterns;
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#patternSize()
+     */
+    public int patternSize() {
+        return patternSize;
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSource#getPackedPattern(int)
+     */
+    public PackedPattern getPackedPattern(int index) throws PatternCreateException {
+        if(index < 0 || index >= numberOfPatterns) {
+            throw new IndexOutOfBoundsException("There is no pattern with the index "
+                    + index + "!");
+        }
+        MappedByteBuffer chunk = chunks[index / patternsPerChunk];
+        int offset = (index % patternsPerChunk) * patternSize;
+        PackedPattern pattern = new PackedPattern(patternSize);
+        long[] words = pattern.words;
+        for(int j=0;j<patternSize;++j) {
+            byte c = chunk.get(offset+j);
+            if(c=='1') {
+                words[j >>> 6] |= 1L << j;
+            } else if(c!='0') {
+                throw new PatternCreateException("Can't " +
+                        "create pattern " + index + ". Data contains " +
+                        "characters other than 0 and 1");
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * @param index
+     * @return a new Pattern containing the pattern of the
+     * specified index
+     * @throws PatternCreateException if the pattern contains
+     * characters other than '0' and '1'
+     */
+    public Pattern getPattern(int index) throws PatternCreateException {
+        return getPackedPattern(index).toPattern();
+    }
+}
@@ -0,0 +1,390 @@
+/* NetBuilder.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.webdings.jannis.exceptions.BadArgumentException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+
+/**
+ * NetBuilder builds nets of {@link BiNeuron}s of any size in
+ * time proportional to the number of neurons and synapses.
+ * First the layers and the connections between them are
+ * described, then {@link #build()} creates the neurons and
+ * synapses.</p>
+ * <p>Unlike {@link NeuralNet#addLayer(Neuron[])} and
+ * {@link Neuron#addConnection(Neuron)}, which copy arrays every
+ * time something is added, NetBuilder knows the number of
+ * synapses of every neuron before it creates them, so every
+ * array is created once with the right size. The outgoing
+ * synapses of the neurons are created in parallel; the
+ * {@link Neuron#getIncomingConnections() incoming connections}
+ * are set afterwards in a single pass.</p>
+ * <p>The outgoing synapses of every neuron are ordered by the
+ * order in which the connections were described and then by
+ * target. Which neurons are connected only depends on the
+ * description and the seeds, so every build produces the same
+ * topology. The weights are set by a {@link WeightInitializer};
+ * two NetBuilders with the same description and initializers
+ * with the same seed produce the same net.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see WeightInitializer
+ */
+public class NetBuilder {
+    //attributes
+    /**
+     * the sigma of every neuron of every layer
+     */
+    private List<float[]> layers;
+    /**
+     * the connections between the layers, in the order they
+     * were described
+     */
+    private List<Connection> connections;
+    private WeightInitializer initializer;
+    private ForkJoinPool pool;
+
+    //constructors
+    /**
+     * Constructs a NetBuilder that sets the weights with a
+     * <code>new WeightInitializer(0)</code>, i.e. to weights
+     * between -0.2 and +0.2.
+     */
+    public NetBuilder() {
+        this.layers = new ArrayList<float[]>();
+        this.connections = new ArrayList<Connection>();
+        this.initializer = new WeightInitializer(0);
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    //methods
+    /**
+     * Adds a layer of neurons with the same sigma.
+     * @param size the number of neurons
+     * @param sigma the treshold of the neurons
+     * @return this NetBuilder
+     */
+    public NetBuilder addLayer(int size, float sigma) {
+        float[] sigmas = new float[size];
+        Arrays.fill(sigmas, sigma);
+        layers.add(sigmas);
+        return this;
+    }
+
+    /**
+     * Adds a layer of neurons with the specified sigmas.
+     * @param sigmas the treshold of every neuron
+     * @return this NetBuilder
+     */
+    public NetBuilder addLayer(float[] sigmas) {
+        layers.add(sigmas.clone());
+        return this;
+    }
+
+    /**
+     * Connects every neuron of layer <code>from</code> to every
+     * neuron of layer <code>to</code>.
+     * @param from
+     * @param to
+     * @return this NetBuilder
+     * @throws BadArgumentException if there is no such layer
+     */
+    public NetBuilder connectFully(int from, int to) throws BadArgumentException {
+        connections.add(new Connection(checkLayer(from), checkLayer(to), null, 1f, 0));
+        return this;
+    }
+
+    /**
+     * Connects every neuron of layer <code>from</code> to every
+     * neuron of layer <code>to</code> with the specified
+     * probability. Whether two neurons are connected only
+     * depends on the seed and the numbers of the neurons.
+     * @param from
+     * @param to
+     * @param probability
+     * @param seed
+     * @return this NetBuilder
+     * @throws BadArgumentException if there is no such layer or
+     * the probability isn't between 0 and 1
+     */
+    public NetBuilder connectRandomly(int from, int to, float probability, long seed) throws BadArgumentException {
+        if(!(probability >= 0 && probability <= 1)) {
+            throw new BadArgumentException("The probability must be between 0 and 1!");
+        }
+        connections.add(new Connection(checkLayer(from), checkLayer(to), null, probability, seed));
+        return this;
+    }
+
+    /**
+     * Connects neuron i of layer <code>from</code> to neuron j
+     * of layer <code>to</code> if <code>pattern[i][j]</code> is
+     * <code>true</code>.
+     * @param from
+     * @param to
+     * @param pattern
+     * @return this NetBuilder
+     * @throws BadArgumentException if there is no such layer or
+     * the pattern doesn't match the sizes of the layers
+     */
+    public NetBuilder connect(int from, int to, boolean[][] pattern) throws BadArgumentException {
+        checkLayer(from);
+        checkLayer(to);
+        if(pattern.length != layerSize(from)) {
+            throw new BadArgumentException("The pattern doesn't match the size of layer " + from + "!");
+        }
+        boolean[][] copy = new boolean[pattern.length][];
+        for(int i=0;i<pattern.length;++i) {
+            if(pattern[i].length != layerSize(to)) {
+                throw new BadArgumentException("The pattern doesn't match the size of layer " + to + "!");
+            }
+            copy[i] = pattern[i].clone();
+        }
+        connections.add(new Connection(from, to, copy, 1f, 0));
+        return this;
+    }
+
+    private int checkLayer(int layerID) throws BadArgumentException {
+        if(layerID < 0 || layerID >= layers.size()) {
+            throw new BadArgumentException("There is no layer with the ID " + layerID + "!");
+        }
+        return layerID;
+    }
+
+    private int layerSize(int layerID) {
+        return layers.get(layerID).length;
+    }
+
+    /**
+     * Creates the neurons and synapses.
+     * @return array containing layers of BiNeurons
+     */
+    public BiNeuron[][] build() {
+        BiNeuron[][] net = new BiNeuron[layers.size()][];
+        int[] layerStart = new int[net.length+1];
+        int i, j, k;
+        for(i=0;i<net.length;++i) {
+            float[] sigmas = layers.get(i);
+            net[i] = new BiNeuron[sigmas.length];
+            for(j=0;j<sigmas.length;++j) {
+                net[i][j] = new BiNeuron(sigmas[j]);
+            }
+            layerStart[i+1] = layerStart[i] + sigmas.length;
+        }
+        //create the outgoing synapses and remember the number
+        //of the target of every synapse
+        int[][] targets = new int[layerStart[net.length]][];
+        for(i=0;i<net.length;++i) {
+            pool.invoke(new Outgoing(net, layerStart, targets, i, 0, net[i].length));
+        }
+        //count the incoming synapses of every neuron, then
+        //register every synapse with its target
+        int[] incomingCount = new int[targets.length];
+        for(int n=0;n<targets.length;++n) {
+            for(k=0;k<targets[n].length;++k) {
+                ++incomingCount[targets[n][k]];
+            }
+        }
+        Synapse[][] incoming = new Synapse[targets.length][];
+        for(int n=0;n<targets.length;++n) {
+            incoming[n] = new Synapse[incomingCount[n]];
+            incomingCount[n] = 0;
+        }
+        int n = 0;
+        for(i=0;i<net.length;++i) {
+            for(j=0;j<net[i].length;++j) {
+                Synapse[] outgoing = net[i][j].getConnections();
+                int[] t = targets[n];
+                for(k=0;k<t.length;++k) {
+                    incoming[t[k]][incomingCount[t[k]]++] = outgoing[k];
+                }
+                targets[n++] = null;
+            }
+        }
+        n = 0;
+        for(i=0;i<net.length;++i) {
+            for(j=0;j<net[i].length;++j) {
+                net[i][j].initIncomingConnections(incoming[n++]);
+            }
+        }
+        initializer.initialize(net);
+        return net;
+    }
+
+    /**
+     * Creates the neurons and synapses.
+     * @return a NeuralNet containing the layers
+     * @throws NeuronTypeMismatchException if no layer has
+     * been added
+     */
+    public NeuralNet buildNet() throws NeuronTypeMismatchException {
+        return new NeuralNet(build());
+    }
+
+    /**
+     * @return Returns the weight initializer.
+     */
+    public WeightInitializer getWeightInitializer() {
+        return initializer;
+    }
+
+    /**
+     * @param initializer The weight initializer to set.
+     */
+    public void setWeightInitializer(WeightInitializer initializer) {
+        this.initializer = initializer;
+    }
+
+    /**
+     * @return Returns the pool the synapses are created in.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @param pool The pool the synapses are created in.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Connection describes the synapses between two layers.
+     */
+    private static class Connection {
+        private final int from;
+        private final int to;
+        /**
+         * the neurons to be connected, or <code>null</code>
+         */
+        private final boolean[][] pattern;
+        private final float probability;
+        private final long seed;
+
+        Connection(int from, int to, boolean[][] pattern, float probability, long seed) {
+            this.from = from;
+            this.to = to;
+            this.pattern = pattern;
+            this.probability = probability;
+            this.seed = seed;
+        }
+
+        /**
+         * Writes the numbers of the neurons of layer
+         * <code>to</code> that neuron <code>source</code> of layer
+         * <code>from</code> is connected to into
+         * <code>buffer</code>.
+         * @return the number of targets
+         */
+        int targets(int source, int size, int[] buffer) {
+            int count = 0;
+            if(pattern != null) {
+                boolean[] row = pattern[source];
+                for(int j=0;j<size;++j) {
+                    if(row[j]) {
+                        buffer[count++] = j;
+                    }
+                }
+            } else if(probability >= 1) {
+                for(int j=0;j<size;++j) {
+                    buffer[count++] = j;
+                }
+            } else {
+                SplittableRandom generator = new SplittableRandom(seed + source * 0x9E3779B97F4A7C15L);
+                for(int j=0;j<size;++j) {
+                    if(generator.nextDouble() < probability) {
+                        buffer[count++] = j;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Outgoing creates the outgoing synapses of the neurons from
+     * <code>first</code> (inclusive) to <code>last</code>
+     * (exclusive) of a single layer. Ranges that are too large
+     * are split in halves.
+     */
+    private class Outgoing extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BiNeuron[][] net;
+        private final int[] layerStart;
+        private final int[][] targets;
+        private final int layer;
+        private final int first;
+        private final int last;
+
+        Outgoing(BiNeuron[][] net, int[] layerStart, int[][] targets, int layer, int first, int last) {
+            this.net = net;
+            this.layerStart = layerStart;
+            this.targets = targets;
+            this.layer = layer;
+            this.first = first;
+            this.last = last;
+        }
+
+        protected void compute() {
+            if(last - first > 256) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new Outgoing(net, layerStart, targets, layer, first, middle),
+                        new Outgoing(net, layerStart, targets, layer, middle, last));
+                return;
+            }
+            int i, c, k;
+            int width = 0;
+            for(i=0;i<net.length;++i) {
+                width = Math.max(width, net[i].length);
+            }
+            int[] buffer = new int[width];
+            for(i=first;i<last;++i) {
+                int total = 0;
+                for(c=0;c<connections.size();++c) {
+                    Connection connection = connections.get(c);
+                    if(connection.from == layer) {
+                        total += connection.targets(i, net[connection.to].length, buffer);
+                    }
+                }
+                Synapse[] synapses = new Synapse[total];
+                int[] t = new int[total];
+                int count = 0;
+                for(c=0;c<connections.size();++c) {
+                    Connection connection = connections.get(c);
+                    if(connection.from == layer) {
+                        Neuron[] to = net[connection.to];
+                        int n = connection.targets(i, to.length, buffer);
+                        for(k=0;k<n;++k) {
+                            synapses[count] = new Synapse(net[layer][i], to[buffer[k]], 0);
+                            t[count++] = layerStart[connection.to] + buffer[k];
+                        }
+                    }
+                }
+                net[layer][i].initConnections(synapses);
+                targets[layerStart[layer]+i] = t;
+            }
+        }
+    }
+}
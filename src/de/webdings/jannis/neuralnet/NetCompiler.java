@@ -0,0 +1,98 @@
+/* NetCompiler.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.IdentityHashMap;
+
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+
+/**
+ * NetCompiler is used to convert a neural net of
+ * {@link BiNeuron}s to a {@link CompiledNet}.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet
+ */
+public class NetCompiler {
+    //methods
+    /**
+     * @param net the net to be compiled
+     * @return a {@link CompiledNet} representing the net
+     * @throws NeuronTypeMismatchException if the net doesn't
+     * consist of {@link BiNeuron}s
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     */
+    public CompiledNet compile(NeuralNet net) throws NeuronTypeMismatchException, NeuronNotFoundException {
+        return compile(net.getLayers());
+    }
+
+    /**
+     * @param layers the layers of the net to be compiled
+     * @return a {@link CompiledNet} representing the net
+     * @throws NeuronTypeMismatchException if the layers don't
+     * consist of {@link BiNeuron}s
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     */
+    public CompiledNet compile(Neuron[][] layers) throws NeuronTypeMismatchException, NeuronNotFoundException {
+        if(!NeuralNet.areNeuronTypesConsistent(layers)
+                || !(layers[0][0] instanceof BiNeuron)) {
+            throw new NeuronTypeMismatchException("Only nets of BiNeurons can be compiled!");
+        }
+        //number all neurons layer by layer
+        int[] layerStart = new int[layers.length+1];
+        for(int i=0;i<layers.length;++i) {
+            layerStart[i+1] = layerStart[i] + layers[i].length;
+        }
+        int numberOfNeurons = layerStart[layers.length];
+        IdentityHashMap<Neuron, Integer> index = new IdentityHashMap<Neuron, Integer>(numberOfNeurons);
+        float[] sigma = new float[numberOfNeurons];
+        int[] synapseStart = new int[numberOfNeurons+1];
+        int n = 0;
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                index.put(layers[i][j], Integer.valueOf(n));
+                sigma[n] = ((BiNeuron) layers[i][j]).getSigma();
+                synapseStart[n+1] = synapseStart[n] + layers[i][j].getNumberOfConnections();
+                ++n;
+            }
+        }
+        //store the outgoing synapses of every neuron
+        int[] synapseTarget = new int[synapseStart[numberOfNeurons]];
+        float[] synapseWeight = new float[synapseTarget.length];
+        int k = 0;
+        for(int i=0;i<layers.length;++i) {
+            for(int j=0;j<layers[i].length;++j) {
+                Synapse[] connections = layers[i][j].getConnections();
+                for(int l=0;l<layers[i][j].getNumberOfConnections();++l) {
+                    Integer target = index.get(connections[l].getTarget());
+                    if(target == null) {
+                        throw new NeuronNotFoundException("The specified net doesn't " +
+                                "contain the target of a synapse!");
+                    }
+                    synapseTarget[k] = target.intValue();
+                    synapseWeight[k] = connections[l].getWeight();
+                    ++k;
+                }
+            }
+        }
+        return new CompiledNet(layerStart, sigma, synapseStart, synapseTarget, synapseWeight);
+    }
+}
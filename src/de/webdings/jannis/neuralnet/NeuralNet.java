@@ -15,14 +15,16 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import de.webdings.jannis.exceptions.BadArgumentException;
 import de.webdings.jannis.exceptions.LowerLayersEmptyException;
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
 import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
 import de.webdings.jannis.neuralnet.nnml.BiNetToNNML;
 import de.webdings.tools.StringSearch;
-import de.webdings.tools.files.TextFiles;
 /**
  * NeuralNet is a wrapper for the actual neural net that is
  * represented in {@link #layers layers}.<br>
@@ -331,26 +333,42 @@ public class NeuralNet {
         }
     }
     
+    /**
+     * Compiles the net to a {@link CompiledNet}, a read-only
+     * copy of its topology that can be shared between threads.
+     * @return the compiled net
+     * @throws NeuronTypeMismatchException if the neuron type
+     * of the net is not supported.
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     * @see NetCompiler
+     */
+    public CompiledNet compile() throws NeuronTypeMismatchException, NeuronNotFoundException {
+        return new NetCompiler().compile(layers);
+    }
+
     /**
      * Saves a NNML representation of the net to a file
      * of the specified filename.
      * @param fileName
      * @throws NeuronTypeMismatchException if the neuron type
      * of the net is not supported.
-     * @throws IOException
+     * @throws IOException if the file can't be written or if a
+     * synapse targets a neuron that is not part of the net
      */
     public void toFile(String fileName) throws NeuronTypeMismatchException, IOException {
         if(this.getType().equals
                 ("de.webdings.jannis.neuralnet.BiNeuron")) {
             BiNetToNNML konverter = new BiNetToNNML();
+            OutputStream out = new FileOutputStream(fileName);
             try {
-				TextFiles.writeToFile(fileName, konverter.generateString(layers));
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				System.out.print(e.getClass());
-				System.out.print(e.getMessage());
-				//e.printStackTrace();;
-			} 
+				konverter.write(layers, out);
+			} catch (NeuronNotFoundException e) {
+				throw new IOException("Couldn't save the net. A synapse " +
+						"targets a neuron that is not part of the net!", e);
+			} finally {
+				out.close();
+			}
         } else {
             throw new NeuronTypeMismatchException("Saving of " 
                     + "nets of this neuron type is not yet supported.");
@@ -30,6 +30,12 @@ package de.webdings.jannis.neuralnet;
  */
 public abstract class Neuron {
     //attributes
+    /**
+     * generates the weights of the synapses added by
+     * {@link #addConnection(Neuron)}
+     */
+     private static final WeightRandomizer RANDOMIZER = new WeightRandomizer();
+
     /** activation a of the neuron. Can be used in 
      * calculations for the activation funtion.
      */
@@ -54,6 +60,32 @@ public abstract class Neuron {
      */
      protected int numberOfConnections;
 
+    /** incoming is an array containing all incoming
+     * {@link Synapse synaptical} connections of this
+     * neuron, i.e. all synapses that target this neuron.
+     * Only the first {@link #numberOfIncomingConnections}
+     * entries are used. It is kept up to date by
+     * {@link #addConnection(Synapse)} and 
+     * {@link #setConnections(Synapse[])} of the source
+     * neurons.
+     */
+     protected Synapse[] incoming;
+
+    /**
+     * <code>numberOfIncomingConnections</code> represents
+     * the amount of incoming connections of this neuron.
+     */
+     protected int numberOfIncomingConnections;
+
+    /**
+     * <code>incomingModifications</code> is increased every
+     * time the incoming connections of this neuron change,
+     * including a change of the source of one of them. It
+     * tells {@link Teacher} that its index of the net is
+     * out of date.
+     */
+     int incomingModifications;
+
     /** fired returns true if the neuron has fired
      * during the last time the net was presented with
      * input.
@@ -79,6 +111,8 @@ public abstract class Neuron {
         net = 0.0f;
         numberOfConnections = 0;
         connections = new Synapse[numberOfConnections];
+        incoming = new Synapse[0];
+        numberOfIncomingConnections = 0;
         fired = false;
         shouldHaveFired = false;
     }
@@ -92,8 +126,7 @@ public abstract class Neuron {
      * @see WeightRandomizer#generateRandomWeight()
      */
     public void addConnection(Neuron target) {
-    	WeightRandomizer wr = new WeightRandomizer();
-    	this.addConnection(target, wr.generateRandomWeight());
+    	this.addConnection(target, RANDOMIZER.generateRandomWeight());
     }
     
    /**
@@ -122,6 +155,67 @@ public abstract class Neuron {
         newConnections[numberOfConnections] = synapse;
         ++numberOfConnections;
         connections = newConnections;
+        if(synapse.getTarget() != null) {
+            synapse.getTarget().addIncomingConnection(synapse);
+        }
+    }
+
+   /**
+    * Registers a {@link Synapse} that targets this neuron.
+    * @param synapse
+    */
+    void addIncomingConnection(Synapse synapse) {
+        if(numberOfIncomingConnections == incoming.length) {
+            Synapse[] newIncoming = new Synapse[Math.max(4, incoming.length*2)];
+            System.arraycopy(incoming, 0, newIncoming, 0, numberOfIncomingConnections);
+            incoming = newIncoming;
+        }
+        incoming[numberOfIncomingConnections] = synapse;
+        ++numberOfIncomingConnections;
+        ++incomingModifications;
+    }
+
+   /**
+    * Sets the outgoing connections of this neuron without
+    * registering them with their targets. This is used by
+    * {@link NetBuilder}, which registers all synapses itself
+    * using {@link #initIncomingConnections(Synapse[])}.
+    * @param connections
+    */
+    void initConnections(Synapse[] connections) {
+        this.connections = connections;
+        this.numberOfConnections = connections.length;
+    }
+
+   /**
+    * Sets the incoming connections of this neuron. This is
+    * used by {@link NetBuilder}.
+    * @param incoming
+    */
+    void initIncomingConnections(Synapse[] incoming) {
+        this.incoming = incoming;
+        this.numberOfIncomingConnections = incoming.length;
+        ++incomingModifications;
+    }
+
+   /**
+    * Removes a {@link Synapse} from the incoming connections
+    * of this neuron.
+    * @param synapse
+    * @return <code>true</code> if the synapse was registered
+    * as an incoming connection
+    */
+    boolean removeIncomingConnection(Synapse synapse) {
+        for(int i=numberOfIncomingConnections-1;i>=0;--i) {
+            if(incoming[i] == synapse) {
+                System.arraycopy(incoming, i+1, incoming, i, numberOfIncomingConnections-i-1);
+                --numberOfIncomingConnections;
+                incoming[numberOfIncomingConnections] = null;
+                ++incomingModifications;
+                return true;
+            }
+        }
+        return false;
     }
    /**
     * represents the activations function of the 
@@ -184,7 +278,36 @@ public abstract class Neuron {
      * @param connections The connections to set.
      */
     public void setConnections(Synapse[] connections) {
+        for(int i=0;i<numberOfConnections;++i) {
+            if(this.connections[i].getTarget() != null) {
+                this.connections[i].getTarget().removeIncomingConnection(this.connections[i]);
+            }
+        }
         this.connections = connections;
+        this.numberOfConnections = connections.length;
+        for(int i=0;i<numberOfConnections;++i) {
+            if(connections[i].getTarget() != null) {
+                connections[i].getTarget().addIncomingConnection(connections[i]);
+            }
+        }
+    }
+    /**
+     * @return Returns the incoming connections, i.e. all 
+     * synapses that target this neuron.
+     */
+    public Synapse[] getIncomingConnections() {
+        if(incoming.length != numberOfIncomingConnections) {
+            Synapse[] trimmed = new Synapse[numberOfIncomingConnections];
+            System.arraycopy(incoming, 0, trimmed, 0, numberOfIncomingConnections);
+            incoming = trimmed;
+        }
+        return incoming;
+    }
+    /**
+     * @return Returns the numberOfIncomingConnections.
+     */
+    public int getNumberOfIncomingConnections() {
+        return numberOfIncomingConnections;
     }
     /**
      * @return Returns the fired.
@@ -15,6 +15,8 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet;
 
+import java.util.IdentityHashMap;
+
 import de.webdings.jannis.exceptions.NeuronNotFoundException;
 /**
  * NeuronIDFinder is used to find the ID of a given neuron
@@ -22,7 +24,10 @@ import de.webdings.jannis.exceptions.NeuronNotFoundException;
  * <p>You should have received a DTD of NNML along with
  * Jannis. If not, or if you're looking for further info
  * on NNML, visit the Jannis project Website on Savannah:
- * <a href="http://www.nongnu.org/jannis/">http://www.nongnu.org/jannis/</a>
+ * <a href="http://www.nongnu.org/jannis/">http://www.nongnu.org/jannis/</a></p>
+ * <p>The IDs of all neurons are stored in an index the first
+ * time an ID is needed, so every lookup takes constant time.
+ * If the net has changed since, the index is built again.
  * 
  * @author Stefan Thesing<br>
  * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
@@ -34,6 +39,16 @@ public class NeuronIDFinder {
      * The layers of the net <code>NeuronIDFinder</code> is searching.
      */
     Neuron[][] layers;
+    /**
+     * The IDs of every neuron of the searched net. The array at
+     * index 0 contains the layerID, the array at index 1 the
+     * neuronID.
+     */
+    private IdentityHashMap<Neuron, int[]> index;
+    /**
+     * the neurons of the net when {@link #index} was built
+     */
+    private Neuron[][] indexedNeurons;
     //Konstruktor
     /**
      * Constructs a <code>NeuronIDFinder</code> that can search the specified {@link
@@ -59,7 +74,7 @@ public class NeuronIDFinder {
      * @throws NeuronNotFoundException
      */
     public int getLayerID(Neuron neuron) throws NeuronNotFoundException {
-      return getIDs(neuron)[0];
+      return lookup(neuron)[0];
     }
 
     /**
@@ -68,7 +83,7 @@ public class NeuronIDFinder {
      * @throws NeuronNotFoundException
      */
     public int getNeuronID(Neuron neuron) throws NeuronNotFoundException {
-      return getIDs(neuron)[1];
+      return lookup(neuron)[1];
     }
 
     /**
@@ -79,25 +94,82 @@ public class NeuronIDFinder {
      * searched net.
      */
     int[] getIDs(Neuron neuron) throws NeuronNotFoundException {
-      int layerID = -1;
-      int neuronID = -1;
+      int[] ids = lookup(neuron);
+      int[] rValue = new int[2];
+      rValue[0] = ids[0];
+      rValue[1] = ids[1];
+      return rValue;
+    }
+
+    /**
+     * Looks the neuron up in the {@link #index}. If the net has
+     * changed since the index was built, the index is built
+     * again.
+     * @param neuron
+     * @return the IDs of the neuron as stored in the index
+     * @throws NeuronNotFoundException if the specified neuron does not reside in the 
+     * searched net.
+     */
+    private int[] lookup(Neuron neuron) throws NeuronNotFoundException {
+      int[] ids = null;
+      if(index != null) {
+        ids = index.get(neuron);
+        if(ids != null && ids[0] < layers.length && ids[1] < layers[ids[0]].length
+           && layers[ids[0]][ids[1]] == neuron) {
+          return ids;
+        }
+      }
+      if(index == null || !isIndexValid()) {
+        buildIndex();
+        ids = index.get(neuron);
+      }
+      if(ids == null) {
+        throw new NeuronNotFoundException("The specified net doesn't contain the neuron searched for!");
+      }
+      return ids;
+    }
+
+    /**
+     * @return <code>true</code> if the net still contains the
+     * same neurons at the same positions as when the
+     * {@link #index} was built
+     */
+    private boolean isIndexValid() {
+      if(indexedNeurons.length != layers.length) {
+        return false;
+      }
+      for(int i=0;i<layers.length;++i) {
+        if(indexedNeurons[i].length != layers[i].length) {
+          return false;
+        }
+        for(int j=0;j<layers[i].length;++j) {
+          if(indexedNeurons[i][j] != layers[i][j]) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Builds the {@link #index} of all neurons in the net.
+     */
+    private void buildIndex() {
+      int size = 0;
       int i,j;
+      for(i=0;i<layers.length;++i) {
+        size += layers[i].length;
+      }
+      index = new IdentityHashMap<Neuron, int[]>(size);
+      indexedNeurons = new Neuron[layers.length][];
       for(i=0;i<layers.length;++i) {
         for(j=0;j<layers[i].length;++j) {
-          if(neuron == layers[i][j]) {
-            layerID = i;
-            neuronID = j;
-            break;
-          }
+          int[] ids = new int[2];
+          ids[0] = i;
+          ids[1] = j;
+          index.put(layers[i][j], ids);
         }
-      }
-      if(layerID == -1 || neuronID == -1) {
-        throw new NeuronNotFoundException("The specified net doesn't contain the neuron searched for!");
-      } else {
-        int[] rValue = new int[2];
-        rValue[0] = layerID;
-        rValue[1] = neuronID;
-        return rValue;
+        indexedNeurons[i] = layers[i].clone();
       }
     }
 
@@ -0,0 +1,231 @@
+/* PackedPattern.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+
+import de.webdings.jannis.exceptions.PatternCreateException;
+
+/**
+ * PackedPattern represents the same information as a
+ * {@link Pattern}, but it stores 64 entries in every
+ * <code>long</code> instead of using a <code>boolean</code>
+ * for every entry. This makes large sets of patterns
+ * roughly eight times smaller.</p>
+ * <p>Entry i is stored in bit <code>i%64</code> of word
+ * <code>i/64</code>. Bits beyond the size of the pattern
+ * are always <code>0</code>.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see Pattern
+ */
+public class PackedPattern {
+    //attributes
+    /**
+     * the words the entries are stored in
+     */
+    final long[] words;
+    /**
+     * the number of entries
+     */
+    private final int size;
+
+    //constructors
+    /**
+     * Constructs a PackedPattern of the specified size with
+     * all entries set to <code>false</code>.
+     * @param size
+     */
+    public PackedPattern(int size) {
+        this.size = size;
+        this.words = new long[(size+63) >>> 6];
+    }
+
+    /**
+     * Constructs a PackedPattern from the specified words.
+     * The array is used directly, not copied.
+     * @param words
+     * @param size
+     */
+    public PackedPattern(long[] words, int size) {
+        if(words.length != (size+63) >>> 6) {
+            throw new IllegalArgumentException("The number of words doesn't match the size!");
+        }
+        this.size = size;
+        this.words = words;
+        if((size & 63) != 0) {
+            words[words.length-1] &= (1L << size) - 1;
+        }
+    }
+
+    /**
+     * Constructs a PackedPattern from an array containing
+     * <code>true</code> or <code>false</code>.
+     * @param entries
+     */
+    public PackedPattern(boolean[] entries) {
+        this(entries.length);
+        for(int i=0;i<entries.length;++i) {
+            if(entries[i]) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Constructs a PackedPattern containing the same entries
+     * as the specified {@link Pattern}.
+     * @param pattern
+     */
+    public PackedPattern(Pattern pattern) {
+        this(pattern.entries);
+    }
+
+    /**
+     * Constructs a PackedPattern from a String containing
+     * <code>0</code>s and <code>1</code>s.
+     * @param entries
+     * @throws PatternCreateException if the String contains characters other than
+     * <code>0</code> and <code>1</code>
+     */
+    public PackedPattern(String entries) throws PatternCreateException {
+        this(entries.length());
+        for(int i=0;i<size;++i) {
+            char c = entries.charAt(i);
+            if(c == '1') {
+                words[i >>> 6] |= 1L << i;
+            } else if(c != '0') {
+                throw new PatternCreateException("Can't " +
+                        "create pattern. Data contains " +
+                        "characters other than 0 and 1");
+            }
+        }
+    }
+
+    //methods
+    /**
+     * @param i
+     * @return the entry at the specified index
+     */
+    public boolean get(int i) {
+        checkIndex(i);
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @param i
+     * @param value the value to set the entry at the specified index to
+     */
+    public void set(int i, boolean value) {
+        checkIndex(i);
+        if(value) {
+            words[i >>> 6] |= 1L << i;
+        } else {
+            words[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    private void checkIndex(int i) {
+        if(i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i
+                    + " is out of bounds for a pattern of size " + size);
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of <code>true</code> entries
+     */
+    public int cardinality() {
+        int count = 0;
+        for(int i=0;i<words.length;++i) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * @param other a pattern of the same size
+     * @return the number of entries in which the two patterns differ
+     */
+    public int hammingDistance(PackedPattern other) {
+        if(other.size != size) {
+            throw new IllegalArgumentException("The patterns differ in size!");
+        }
+        int count = 0;
+        for(int i=0;i<words.length;++i) {
+            count += Long.bitCount(words[i] ^ other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * @return a {@link Pattern} containing the same entries
+     */
+    public Pattern toPattern() {
+        boolean[] entries = new boolean[size];
+        for(int i=0;i<size;++i) {
+            entries[i] = (words[i >>> 6] & (1L << i)) != 0;
+        }
+        return new Pattern(entries);
+    }
+
+    /**
+     * @return the words the entries are stored in. This is
+     * the array used by this pattern, not a copy.
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(Object o) {
+        if(!(o instanceof PackedPattern)) {
+            return false;
+        }
+        PackedPattern other = (PackedPattern) o;
+        return other.size == size && Arrays.equals(other.words, words);
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    /**
+     * @return a String of <code>0</code>s and <code>1</code>s
+     * representing the entries
+     */
+    public String toString() {
+        StringBuffer s = new StringBuffer(size);
+        for(int i=0;i<size;++i) {
+            s.append((words[i >>> 6] & (1L << i)) != 0 ? '1' : '0');
+        }
+        return s.toString();
+    }
+}
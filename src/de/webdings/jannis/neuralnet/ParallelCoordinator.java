@@ -0,0 +1,200 @@
+/* ParallelCoordinator.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.webdings.jannis.exceptions.PatternCreateException;
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+import de.webdings.tools.files.TextFiles;
+
+/**
+ * ParallelCoordinator presents a {@link CompiledNet} with
+ * a set of input patterns using several threads. The patterns
+ * are split into blocks that are processed by the workers of a
+ * {@link ForkJoinPool}; every block uses its own
+ * {@link ActivationState}.</p>
+ * <p>The output patterns are stored in the order of the
+ * input patterns, so {@link #exportPattern()} returns the
+ * same String as {@link PatternReader#exportPattern()} after
+ * a {@link Coordinator} processed the same patterns.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledCoordinator
+ */
+public class ParallelCoordinator {
+    //attributes
+    /**
+     * the net to be coordinated
+     */
+    private CompiledNet net;
+    /**
+     * the pool the patterns are processed in
+     */
+    private ForkJoinPool pool;
+    /**
+     * the input patterns
+     */
+    private Pattern[] inputPattern;
+    /**
+     * the output patterns produced by the net
+     */
+    private Pattern[] outputPattern;
+    /**
+     * the maximum number of patterns processed by a single
+     * task. If it is <code>0</code>, it is chosen according
+     * to the number of patterns and workers.
+     */
+    private int blockSize;
+
+    //constructors
+    /**
+     * Constructs a ParallelCoordinator that uses the common
+     * {@link ForkJoinPool}.
+     * @param net
+     * @param inputPattern
+     */
+    public ParallelCoordinator(CompiledNet net, Pattern[] inputPattern) {
+        this(net, inputPattern, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param net
+     * @param inputPattern
+     * @param pool the pool the patterns are processed in
+     */
+    public ParallelCoordinator(CompiledNet net, Pattern[] inputPattern, ForkJoinPool pool) {
+        this.net = net;
+        this.inputPattern = inputPattern;
+        this.outputPattern = new Pattern[inputPattern.length];
+        this.pool = pool;
+        this.blockSize = 0;
+    }
+
+    /**
+     * Constructs a ParallelCoordinator that uses the common
+     * {@link ForkJoinPool}.
+     * @param net
+     * @param fileNameInputPattern
+     * @throws IOException
+     * @throws PatternCreateException
+     */
+    public ParallelCoordinator(CompiledNet net, String fileNameInputPattern) throws IOException, PatternCreateException {
+        this(net, PatternConverter.readPatternFile(fileNameInputPattern, net.getLayerSize(0)));
+    }
+
+    //methods
+    /**
+     * Presents the net with all input patterns and waits until
+     * all of them have been processed.
+     * @throws PatternLayerMismatchException if an input pattern
+     * is smaller than the input layer
+     */
+    public void start() throws PatternLayerMismatchException {
+        for(int i=0;i<inputPattern.length;++i) {
+            net.checkInput(inputPattern[i]);
+        }
+        int size = blockSize;
+        if(size < 1) {
+            size = Math.max(1, inputPattern.length / (pool.getParallelism() * 8));
+        }
+        pool.invoke(new Block(0, inputPattern.length, size));
+    }
+
+    /**
+     * @return a {@link java.lang.String} containing '0's
+     * and '1's that represents the output patterns.
+     */
+    public String exportPattern() {
+        return PatternConverter.patternToStr(outputPattern, net.getLayerSize(net.getNumberOfLayers()-1));
+    }
+
+    /**
+     * Saves the produced output pattern to a file of
+     * the specified filename.
+     * @param filename
+     * @throws IOException
+     */
+    public void savePattern(String filename) throws IOException {
+        TextFiles.writeToFile(filename, exportPattern());
+    }
+
+    /**
+     * @return Returns the output patterns produced by the net.
+     */
+    public Pattern[] getPattern() {
+        return outputPattern;
+    }
+
+    /**
+     * @return Returns the input patterns.
+     */
+    public Pattern[] getInputPattern() {
+        return inputPattern;
+    }
+
+    /**
+     * @return Returns the block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @param blockSize The maximum number of patterns processed
+     * by a single task. <code>0</code> chooses it according to
+     * the number of patterns and workers.
+     */
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Block processes the patterns from <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive). Blocks that
+     * are too large are split in halves.
+     */
+    private class Block extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int size;
+
+        Block(int from, int to, int size) {
+            this.from = from;
+            this.to = to;
+            this.size = size;
+        }
+
+        protected void compute() {
+            if(to - from <= size) {
+                ActivationState state = net.newActivationState();
+                for(int i=from;i<to;++i) {
+                    state.clear();
+                    net.propagate(inputPattern[i].entries, state.net, state.fired);
+                    outputPattern[i] = net.readOutput(state.fired);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Block(from, middle, size), new Block(middle, to, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/* ParallelTrainer.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.webdings.jannis.exceptions.BadArgumentException;
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+import de.webdings.jannis.exceptions.PatternCreateException;
+import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+
+/**
+ * ParallelTrainer trains a net of {@link BiNeuron}s the way
+ * {@link Teacher} does, but splits the training patterns
+ * between several threads.</p>
+ * <p>The patterns are processed in rounds of
+ * {@link #getRoundSize()} patterns. Every round is split into
+ * one slice per thread. All threads process their patterns with
+ * the weights the net had at the beginning of the round, and
+ * instead of changing the weights they count for every synapse
+ * how often it should have been increased or decreased. When
+ * all threads are done, the counts are added up and every
+ * weight is changed by its count times the learning step.
+ * Because the counts are integers, the order in which they are
+ * added up doesn't matter: the result only depends on the
+ * patterns and the round size, not on the number of threads or
+ * their timing. With a round size of <code>1</code> the weights
+ * change exactly like they do with a {@link TrainingCoordinator}.
+ * </p>
+ * <p>The net is compiled once into a {@link CompiledNet} that
+ * holds the current weights. After every epoch the weights are
+ * written back to the {@link Synapse}s of the net. The net
+ * must not be changed while it is trained.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see Teacher
+ */
+public class ParallelTrainer {
+    //attributes
+    /**
+     * the net being trained; its weights are changed at the
+     * end of every round
+     */
+    private CompiledNet net;
+    /**
+     * the synapse every weight of {@link #net} belongs to
+     */
+    private Synapse[] synapses;
+    /**
+     * <code>true</code> for every synapse that leads from a
+     * layer to the next one. Only these are trained, just like
+     * in {@link Teacher}.
+     */
+    private boolean[] trained;
+    private PatternSource inputPattern;
+    private PatternSource desiredOutputPattern;
+    private ForkJoinPool pool;
+    private int numberOfThreads;
+    private int roundSize;
+    private float learningStep;
+    private Worker[] workers;
+    /**
+     * the bit errors of the last epoch
+     */
+    private long bitErrors;
+
+    //constructors
+    /**
+     * See {@link #ParallelTrainer(Neuron[][], Pattern[], Pattern[])}
+     * @param net
+     * @param inputPattern
+     * @param desiredOutputPattern
+     * @throws NeuronTypeMismatchException if the net doesn't
+     * consist of BiNeurons
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     * @throws PatternLayerMismatchException if the patterns don't
+     * match the input or output layer
+     * @throws BadArgumentException if there are fewer desired
+     * output patterns than input patterns
+     */
+    public ParallelTrainer(NeuralNet net, Pattern[] inputPattern, Pattern[] desiredOutputPattern) 
+            throws NeuronTypeMismatchException, NeuronNotFoundException, PatternLayerMismatchException, BadArgumentException {
+        this(net.getLayers(), inputPattern, desiredOutputPattern);
+    }
+
+    /**
+     * Constructs a ParallelTrainer that uses the common
+     * {@link ForkJoinPool} and as many threads as it has
+     * workers.
+     * @param layers
+     * @param inputPattern
+     * @param desiredOutputPattern
+     * @throws NeuronTypeMismatchException if the net doesn't
+     * consist of BiNeurons
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     * @throws PatternLayerMismatchException if the patterns don't
+     * match the input or output layer
+     * @throws BadArgumentException if there are fewer desired
+     * output patterns than input patterns
+     */
+    public ParallelTrainer(Neuron[][] layers, Pattern[] inputPattern, Pattern[] desiredOutputPattern) 
+            throws NeuronTypeMismatchException, NeuronNotFoundException, PatternLayerMismatchException, BadArgumentException {
+        this(layers, new ArraySource(PatternConverter.pack(inputPattern)), 
+                new ArraySource(PatternConverter.pack(desiredOutputPattern)),
+                ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+    }
+
+    /**
+     * @param layers
+     * @param inputPattern
+     * @param desiredOutputPattern
+     * @param pool the pool the patterns are processed in
+     * @param numberOfThreads the number of slices every round is
+     * split into
+     * @throws NeuronTypeMismatchException if the net doesn't
+     * consist of BiNeurons
+     * @throws NeuronNotFoundException if a synapse targets a
+     * neuron that is not part of the net
+     * @throws PatternLayerMismatchException if the patterns don't
+     * match the input or output layer
+     * @throws BadArgumentException if there are fewer desired
+     * output patterns than input patterns
+     */
+    public ParallelTrainer(Neuron[][] layers, PatternSource inputPattern, PatternSource desiredOutputPattern,
+            ForkJoinPool pool, int numberOfThreads) throws NeuronTypeMismatchException, 
+            NeuronNotFoundException, PatternLayerMismatchException, BadArgumentException {
+        if(numberOfThreads < 1) {
+            throw new BadArgumentException("The number of threads must be at least 1!");
+        }
+        this.net = new NetCompiler().compile(layers);
+        if(inputPattern.patternSize() != layers[0].length) {
+            throw new PatternLayerMismatchException("The size of the input pattern " +
+                    "doesn't match the size of the input layer!");
+        }
+        if(desiredOutputPattern.patternSize() != layers[layers.length-1].length) {
+            throw new PatternLayerMismatchException("The size of the desired output pattern " +
+                    "doesn't match the size of the output layer!");
+        }
+        if(desiredOutputPattern.numberOfPatterns() < inputPattern.numberOfPatterns()) {
+            throw new BadArgumentException("There are fewer desired output patterns " +
+                    "than input patterns!");
+        }
+        this.inputPattern = inputPattern;
+        this.desiredOutputPattern = desiredOutputPattern;
+        this.pool = pool;
+        this.numberOfThreads = numberOfThreads;
+        this.roundSize = 64 * numberOfThreads;
+        this.learningStep = 0.1f;
+        collectSynapses(layers);
+        this.workers = new Worker[numberOfThreads];
+        for(int t=0;t<numberOfThreads;++t) {
+            workers[t] = new Worker();
+        }
+    }
+
+    //methods
+    /**
+     * Collects the synapses in the order {@link NetCompiler}
+     * stores their weights and marks those that lead from a
+     * layer to the next one.
+     */
+    private void collectSynapses(Neuron[][] layers) {
+        IdentityHashMap<Neuron, Integer> layerOf = new IdentityHashMap<Neuron, Integer>();
+        int i, j, l;
+        for(i=0;i<layers.length;++i) {
+            for(j=0;j<layers[i].length;++j) {
+                layerOf.put(layers[i][j], Integer.valueOf(i));
+            }
+        }
+        synapses = new Synapse[net.synapseTarget.length];
+        trained = new boolean[synapses.length];
+        int k = 0;
+        for(i=0;i<layers.length;++i) {
+            for(j=0;j<layers[i].length;++j) {
+                Synapse[] connections = layers[i][j].getConnections();
+                for(l=0;l<layers[i][j].getNumberOfConnections();++l) {
+                    synapses[k] = connections[l];
+                    trained[k] = layerOf.get(connections[l].getTarget()).intValue() == i+1;
+                    ++k;
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes over all training patterns once and writes the
+     * new weights back to the synapses of the net.
+     * @return the number of output entries that differed from
+     * the desired output during this epoch
+     * @throws PatternGiverReaderCommunicationException if a
+     * pattern can't be decoded
+     */
+    public long trainEpoch() throws PatternGiverReaderCommunicationException {
+        int numberOfPatterns = inputPattern.numberOfPatterns();
+        bitErrors = 0;
+        try {
+            for(int from=0;from<numberOfPatterns;from+=roundSize) {
+                pool.invoke(new Round(from, Math.min(from+roundSize, numberOfPatterns)));
+            }
+        } catch (RuntimeException e) {
+            //the pool may wrap the exception thrown by a worker
+            Throwable t = e;
+            while(t != null && !(t instanceof DecodeException)) {
+                t = t.getCause();
+            }
+            if(t == null) {
+                throw e;
+            }
+            throw new PatternGiverReaderCommunicationException("Can't read pattern "
+                    + ((DecodeException) t).index + "!", t.getCause());
+        } finally {
+            writeBack();
+        }
+        return bitErrors;
+    }
+
+    /**
+     * Writes the current weights to the synapses of the net.
+     */
+    private void writeBack() {
+        for(int k=0;k<synapses.length;++k) {
+            synapses[k].setWeight(net.synapseWeight[k]);
+        }
+    }
+
+    /**
+     * @return the number of output entries that differed from
+     * the desired output during the last epoch
+     */
+    public long getBitErrors() {
+        return bitErrors;
+    }
+
+    /**
+     * @return Returns the number of patterns after which the
+     * weights are changed.
+     */
+    public int getRoundSize() {
+        return roundSize;
+    }
+
+    /**
+     * @param roundSize The number of patterns after which the
+     * weights are changed. Larger rounds leave more work to
+     * every thread between two changes.
+     */
+    public void setRoundSize(int roundSize) {
+        if(roundSize < 1) {
+            throw new IllegalArgumentException("The round size must be at least 1!");
+        }
+        this.roundSize = roundSize;
+    }
+
+    /**
+     * @return Returns the amount a weight is changed by for
+     * every pattern that asks for a change.
+     */
+    public float getLearningStep() {
+        return learningStep;
+    }
+
+    /**
+     * @param learningStep The amount a weight is changed by for
+     * every pattern that asks for a change.
+     */
+    public void setLearningStep(float learningStep) {
+        this.learningStep = learningStep;
+    }
+
+    /**
+     * @return Returns the number of slices every round is
+     * split into.
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @return Returns the compiled net, which holds the current
+     * weights.
+     */
+    public CompiledNet getNet() {
+        return net;
+    }
+
+    /**
+     * Round processes the patterns from <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive): every worker
+     * processes its slice, then the counts are added up and the
+     * weights are changed.
+     */
+    private class Round extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        Round(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            int length = to - from;
+            Slice[] slices = new Slice[numberOfThreads];
+            for(int t=0;t<numberOfThreads;++t) {
+                slices[t] = new Slice(workers[t], from + (int) ((long) length*t/numberOfThreads),
+                        from + (int) ((long) length*(t+1)/numberOfThreads));
+            }
+            invokeAll(slices);
+            invokeAll(new Apply(0, synapses.length));
+            for(int t=0;t<numberOfThreads;++t) {
+                bitErrors += workers[t].bitErrors;
+                workers[t].bitErrors = 0;
+            }
+        }
+    }
+
+    private class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Worker worker;
+        private final int from;
+        private final int to;
+
+        Slice(Worker worker, int from, int to) {
+            this.worker = worker;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            for(int p=from;p<to;++p) {
+                worker.train(p);
+            }
+        }
+    }
+
+    /**
+     * Apply adds up the counts of the synapses from
+     * <code>from</code> (inclusive) to <code>to</code>
+     * (exclusive) and changes their weights.
+     */
+    private class Apply extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        Apply(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if(to - from <= 65536) {
+                float[] weight = net.synapseWeight;
+                for(int k=from;k<to;++k) {
+                    int count = 0;
+                    for(int t=0;t<numberOfThreads;++t) {
+                        count += workers[t].count[k];
+                        workers[t].count[k] = 0;
+                    }
+                    if(count != 0) {
+                        weight[k] += count * learningStep;
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Apply(from, middle), new Apply(middle, to));
+            }
+        }
+    }
+
+    /**
+     * Worker holds everything a thread needs to process its
+     * slice of a round.
+     */
+    private class Worker {
+        final ActivationState state = net.newActivationState();
+        final boolean[] input = new boolean[net.layerStart[1]];
+        final boolean[] shouldHaveFired = new boolean[net.sigma.length];
+        /**
+         * the number of times every synapse should have been
+         * increased minus the number of times it should have
+         * been decreased
+         */
+        final int[] count = new int[synapses.length];
+        long bitErrors;
+
+        /**
+         * Presents the net with pattern p and counts the changes
+         * {@link Teacher} would make to the weights.
+         */
+        void train(int p) {
+            PackedPattern in, desired;
+            try {
+                in = inputPattern.getPackedPattern(p);
+            } catch (PatternCreateException e) {
+                throw new DecodeException(p, e);
+            }
+            try {
+                desired = desiredOutputPattern.getPackedPattern(p);
+            } catch (PatternCreateException e) {
+                throw new DecodeException(p, e);
+            }
+            int n;
+            for(n=0;n<input.length;++n) {
+                input[n] = in.get(n);
+            }
+            state.clear();
+            net.propagate(input, state.net, state.fired);
+            boolean[] fired = state.fired;
+            Arrays.fill(shouldHaveFired, false);
+            int[] layerStart = net.layerStart;
+            int numberOfLayers = layerStart.length-1;
+            int first = layerStart[numberOfLayers-1];
+            for(n=first;n<layerStart[numberOfLayers];++n) {
+                shouldHaveFired[n] = desired.get(n-first);
+                if(shouldHaveFired[n] != fired[n]) {
+                    ++bitErrors;
+                }
+            }
+            //from the output layer down to the first hidden layer,
+            //the same way Teacher checks the net backwards
+            for(int i=numberOfLayers-1;i>0;--i) {
+                for(n=layerStart[i-1];n<layerStart[i];++n) {
+                    if(!fired[n]) {
+                        continue;
+                    }
+                    int end = net.synapseStart[n+1];
+                    for(int k=net.synapseStart[n];k<end;++k) {
+                        if(!trained[k]) {
+                            continue;
+                        }
+                        int target = net.synapseTarget[k];
+                        if(fired[target]) {
+                            if(shouldHaveFired[target]) {
+                                shouldHaveFired[n] = true;
+                            } else {
+                                --count[k];
+                            }
+                        } else if(shouldHaveFired[target]) {
+                            ++count[k];
+                            shouldHaveFired[n] = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * DecodeException carries a {@link PatternCreateException}
+     * out of a worker.
+     */
+    private static class DecodeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int index;
+
+        DecodeException(int index, PatternCreateException cause) {
+            super(cause);
+            this.index = index;
+        }
+    }
+
+    /**
+     * ArraySource provides the patterns of an array.
+     */
+    private static class ArraySource implements PatternSource {
+        private final PackedPattern[] pattern;
+
+        ArraySource(PackedPattern[] pattern) {
+            this.pattern = pattern;
+        }
+
+        public int numberOfPatterns() {
+            return pattern.length;
+        }
+
+        public int patternSize() {
+            return pattern.length > 0 ? pattern[0].size() : 0;
+        }
+
+        public PackedPattern getPackedPattern(int index) {
+            return pattern[index];
+        }
+    }
+}
@@ -15,14 +15,21 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet;
 
+import java.io.File;
+import java.io.IOException;
+
+import de.webdings.jannis.events.PatternFileLoadEvent;
 import de.webdings.jannis.exceptions.PatternCreateException;
+import de.webdings.tools.files.TextFiles;
 
 /**
  * PatternConverter is used to convert 
  * {@link java.lang.String}s to arrays of {@link Pattern}s 
- * and vice versa. The character "0" corresponds to an
+ * or {@link PackedPattern}s and vice versa. The character "0" corresponds to an
  * pattern entry of <code>false</code>, "1" to <code>true
- * </code>.
+ * </code>.</p>
+ * <p>It can also convert files of '0's and '1's to binary
+ * pattern files (see {@link BinaryPatternFile}) and back.
  * 
  * @author Stefan Thesing<br>
  * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
@@ -72,17 +79,169 @@ public class PatternConverter {
      * the patterns.
      */
     public static String patternToStr(Pattern[] pattern, int patternSize) {
-        String s = new String();
+        StringBuffer s = new StringBuffer(pattern.length*patternSize);
         int i,j;
         for(i=0;i<pattern.length; ++i){
          for(j=0;j<patternSize;++j){
           if(pattern[i].entries[j]){
-           s = s + "1";
+           s.append('1');
           } else {
-           s = s + "0";
+           s.append('0');
+          }
+         }
+        }
+        return s.toString();
+    }
+
+    /**
+     * @param s The {@link java.lang.String} containing a
+     * representation of the pattern
+     * @param patternSize The size of the pattern (usually
+     * the number of neurons contained in the input or
+     * output layer)
+     * @return an array of {@link PackedPattern}s
+     * @throws PatternCreateException if the string contains characters
+     * other than <code>0</code> and <code>1</code>
+     */
+    public static PackedPattern[] strToPackedPattern(String s, int patternSize) throws PatternCreateException {
+        int numberOfPatterns = s.length()/patternSize;
+        PackedPattern[] pattern = new PackedPattern[numberOfPatterns];
+        int k=0;
+        for(int i=0;i<numberOfPatterns;++i){
+          pattern[i] = new PackedPattern(patternSize);
+          for(int j=0;j<patternSize;++j) {
+            char c = s.charAt(k);
+            if(c=='1') {
+                pattern[i].words[j >>> 6] |= 1L << j;
+            } else if(c!='0') {
+                throw new PatternCreateException("Can't " +
+                        "create pattern. Data contains " +
+                        "characters other than 0 and 1");
+            }
+            ++k;
           }
+        }
+        return pattern;
+    }
+
+    /**
+     * @param pattern an array of {@link PackedPattern}s
+     * @param patternSize The size of the pattern (usually
+     * the number of neurons contained in the input or
+     * output layer)
+     * @return a {@link java.lang.String} representing
+     * the patterns.
+     */
+    public static String packedPatternToStr(PackedPattern[] pattern, int patternSize) {
+        StringBuffer s = new StringBuffer(pattern.length*patternSize);
+        for(int i=0;i<pattern.length;++i){
+         for(int j=0;j<patternSize;++j){
+          s.append((pattern[i].words[j >>> 6] & (1L << j)) != 0 ? '1' : '0');
          }
         }
-        return s;
+        return s.toString();
+    }
+
+    /**
+     * @param pattern an array of {@link Pattern}s
+     * @return an array of {@link PackedPattern}s containing
+     * the same entries. <code>null</code> elements stay
+     * <code>null</code>.
+     */
+    public static PackedPattern[] pack(Pattern[] pattern) {
+        PackedPattern[] packed = new PackedPattern[pattern.length];
+        for(int i=0;i<pattern.length;++i) {
+            if(pattern[i] != null) {
+                packed[i] = new PackedPattern(pattern[i]);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * @param packed an array of {@link PackedPattern}s
+     * @return an array of {@link Pattern}s containing
+     * the same entries. <code>null</code> elements stay
+     * <code>null</code>.
+     */
+    public static Pattern[] unpack(PackedPattern[] packed) {
+        Pattern[] pattern = new Pattern[packed.length];
+        for(int i=0;i<packed.length;++i) {
+            if(packed[i] != null) {
+                pattern[i] = packed[i].toPattern();
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Reads a file of '0's and '1's.
+     * @param fileName
+     * @param patternSize The size of the pattern (usually
+     * the number of neurons contained in the input or
+     * output layer)
+     * @return an array of {@link Pattern}s
+     * @throws IOException
+     * @throws PatternCreateException if the file contains
+     * characters other than <code>0</code> and <code>1</code>
+     */
+    public static Pattern[] readPatternFile(String fileName, int patternSize) throws IOException, PatternCreateException {
+        PatternFileLoadEvent event = new PatternFileLoadEvent();
+        event.begin();
+        Pattern[] pattern = strToPattern(TextFiles.readFromFile(fileName), patternSize);
+        if(event.shouldCommit()) {
+            event.file = fileName;
+            event.format = "text";
+            event.patterns = pattern.length;
+            event.patternSize = patternSize;
+            event.bytes = new File(fileName).length();
+            event.commit();
+        }
+        return pattern;
+    }
+
+    /**
+     * Converts a file of '0's and '1's to a binary pattern
+     * file. The patterns are converted one at a time, so files
+     * of any size can be converted.
+     * @param textFileName the file of '0's and '1's
+     * @param binaryFileName the binary pattern file to be written
+     * @param patternSize The size of the pattern (usually
+     * the number of neurons contained in the input or
+     * output layer)
+     * @throws IOException
+     * @throws PatternCreateException if the text file contains
+     * characters other than <code>0</code> and <code>1</code>
+     */
+    public static void textFileToBinaryFile(String textFileName, String binaryFileName, int patternSize) throws IOException, PatternCreateException {
+        MappedPatternFile in = new MappedPatternFile(textFileName, patternSize);
+        BinaryPatternWriter out = new BinaryPatternWriter(binaryFileName, patternSize);
+        try {
+            for(int i=0;i<in.numberOfPatterns();++i) {
+                out.write(in.getPackedPattern(i));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Converts a binary pattern file to a file of '0's and '1's.
+     * The patterns are converted one at a time, so files of any
+     * size can be converted.
+     * @param binaryFileName the binary pattern file
+     * @param textFileName the file of '0's and '1's to be written
+     * @throws IOException
+     */
+    public static void binaryFileToTextFile(String binaryFileName, String textFileName) throws IOException {
+        BinaryPatternFile in = new BinaryPatternFile(binaryFileName);
+        WriterPatternSink out = new WriterPatternSink(textFileName);
+        try {
+            for(int i=0;i<in.numberOfPatterns();++i) {
+                out.write(in.getPackedPattern(i));
+            }
+        } finally {
+            out.close();
+        }
     }
 }
@@ -19,7 +19,7 @@ import java.io.IOException;
 
 import de.webdings.jannis.exceptions.PatternCreateException;
 import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
-import de.webdings.tools.files.TextFiles;
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
 /**
  * PatternGiver is used to present a {@link NeuralNet} with
  * an input {@link Pattern}.
@@ -44,6 +44,21 @@ public class PatternGiver {
      */
     Pattern[] pattern;
     
+    /**
+     * <code>packedPattern</code> is used instead of
+     * {@link #pattern} if the input is presented as
+     * {@link PackedPattern}s.
+     */
+    PackedPattern[] packedPattern;
+    
+    /**
+     * <code>source</code> is used instead of {@link #pattern}
+     * if the input patterns are provided by a
+     * {@link PatternSource}. They are decoded one at a time,
+     * when they are sent.
+     */
+    PatternSource source;
+    
     /**
      * <code>counter</code> is used to keep track of the
      * number of patterns the net has already been presented
@@ -60,7 +75,7 @@ public class PatternGiver {
      */
     public PatternGiver(Neuron[] inputLayer, String fileName) throws IOException, PatternCreateException  {
       this.inputLayer = inputLayer;
-      this.pattern = PatternConverter.strToPattern(TextFiles.readFromFile(fileName), inputLayer.length);
+      this.pattern = PatternConverter.readPatternFile(fileName, inputLayer.length);
       this.counter =0;
     }
     /**
@@ -72,6 +87,33 @@ public class PatternGiver {
       this.pattern = pattern;
       this.counter = 0;
     }
+    /**
+     * @param inputLayer
+     * @param pattern
+     */
+    public PatternGiver(Neuron[] inputLayer, PackedPattern[] pattern) {
+      this.inputLayer = inputLayer;
+      this.packedPattern = pattern;
+      this.counter = 0;
+    }
+    /**
+     * Constructs a PatternGiver that decodes every pattern
+     * when it is sent, so the patterns don't have to be kept
+     * in memory.
+     * @param inputLayer
+     * @param source
+     * @throws PatternLayerMismatchException if the size of the
+     * patterns doesn't match the size of the input layer
+     */
+    public PatternGiver(Neuron[] inputLayer, PatternSource source) throws PatternLayerMismatchException {
+      if(source.patternSize() != inputLayer.length) {
+        throw new PatternLayerMismatchException("The size of the input pattern " +
+                "doesn't match the size of the input layer!");
+      }
+      this.inputLayer = inputLayer;
+      this.source = source;
+      this.counter = 0;
+    }
     
     //methods
     /**
@@ -79,8 +121,19 @@ public class PatternGiver {
      * @throws PatternGiverReaderCommunicationException
      */
     public void nextPattern() throws PatternGiverReaderCommunicationException {
-      if(counter >= pattern.length){
+      if(counter >= numberOfPatterns()){
         throw new PatternGiverReaderCommunicationException("Fehler beim Senden des Musters an die Inputschicht!");
+      } else if(source != null) {
+       try {
+        fire(source.getPackedPattern(counter));
+       } catch (PatternCreateException e) {
+        throw new PatternGiverReaderCommunicationException("Can't read pattern " 
+                + counter + "!", e);
+       }
+       ++counter;
+      } else if(pattern == null) {
+       fire(packedPattern[counter]);
+       ++counter;
       } else {
        int i;
        for(i=0; i < inputLayer.length ;++i) {
@@ -92,6 +145,26 @@ public class PatternGiver {
       }
     }
 
+    /**
+     * Lets the input neurons fire that correspond to the set
+     * bits of the specified pattern. Only the set bits are
+     * visited, in ascending order.
+     */
+    private void fire(PackedPattern p) {
+      long[] words = p.words;
+      for(int w=0;w<words.length;++w) {
+        long word = words[w];
+        while(word != 0) {
+          int i = (w << 6) + Long.numberOfTrailingZeros(word);
+          if(i >= inputLayer.length) {
+            break;
+          }
+          inputLayer[i].fire();
+          word &= word - 1;
+        }
+      }
+    }
+
     /**
      * @return {@link #counter}, i.e. the number of patterns
      * the net has already been presented with.
@@ -99,6 +172,26 @@ public class PatternGiver {
     public int numberSent() {
       return counter;
     }
+
+    /**
+     * Sets {@link #counter}, so the next pattern the net is 
+     * presented with is the pattern of the specified index.
+     * @param numberSent
+     */
+    void setNumberSent(int numberSent) {
+      this.counter = numberSent;
+    }
+
+    /**
+     * @return the number of patterns this PatternGiver
+     * can present the net with
+     */
+    public int numberOfPatterns() {
+      if(source != null) {
+        return source.numberOfPatterns();
+      }
+      return pattern != null ? pattern.length : packedPattern.length;
+    }
     
     /**
      * @return Returns the inputLayer.
@@ -113,9 +206,18 @@ public class PatternGiver {
         this.inputLayer = inputLayer;
     }
     /**
-     * @return Returns the patterns.
+     * @return Returns the patterns. If the patterns were
+     * specified as {@link PackedPattern}s, they are unpacked
+     * on every call. If the patterns are provided by a
+     * {@link PatternSource}, <code>null</code> is returned.
      */
     public Pattern[] getPattern() {
+        if(source != null) {
+            return null;
+        }
+        if(pattern == null) {
+            return PatternConverter.unpack(packedPattern);
+        }
         return pattern;
     }
     /**
@@ -123,5 +225,46 @@ public class PatternGiver {
      */
     public void setPattern(Pattern[] pattern) {
         this.pattern = pattern;
+        this.packedPattern = null;
+        this.source = null;
+    }
+    /**
+     * @return Returns the patterns as {@link PackedPattern}s.
+     * If the patterns were specified as {@link Pattern}s,
+     * they are packed on every call. If the patterns are
+     * provided by a {@link PatternSource}, <code>null</code> is
+     * returned.
+     */
+    public PackedPattern[] getPackedPattern() {
+        if(source != null) {
+            return null;
+        }
+        if(packedPattern == null) {
+            return PatternConverter.pack(pattern);
+        }
+        return packedPattern;
+    }
+    /**
+     * @param pattern The pattern to set.
+     */
+    public void setPackedPattern(PackedPattern[] pattern) {
+        this.packedPattern = pattern;
+        this.pattern = null;
+        this.source = null;
+    }
+    /**
+     * @return Returns the source of the patterns, or
+     * <code>null</code> if the patterns are kept in an array.
+     */
+    public PatternSource getSource() {
+        return source;
+    }
+    /**
+     * @param source The source of the patterns to set.
+     */
+    public void setSource(PatternSource source) {
+        this.source = source;
+        this.pattern = null;
+        this.packedPattern = null;
     }
 }
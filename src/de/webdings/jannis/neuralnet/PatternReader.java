@@ -15,13 +15,19 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
 
 /**
  * PatternReader is used to read the output 
  * produced by a {@link NeuralNet}. The output is stored in
  * an array of {@link Pattern}s. It can also export the 
- * output to a {@link java.util.String} of '0's and '1's.
+ * output to a {@link java.util.String} of '0's and '1's.</p>
+ * <p>Instead of storing the output, a PatternReader can also
+ * pass every pattern on to a {@link PatternSink} as soon as
+ * it has been read.
  * 
  * @author Stefan Thesing<br>
  * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
@@ -41,6 +47,21 @@ public class PatternReader {
      * The array of {@link Pattern}s the output is stored in
      */
     private Pattern[] pattern;
+    /**
+     * The array of {@link PackedPattern}s the output is stored
+     * in if this PatternReader stores packed output.
+     */
+    private PackedPattern[] packedPattern;
+    /**
+     * The sink the output is passed on to instead of storing
+     * it, if this PatternReader was constructed with one.
+     */
+    private PatternSink sink;
+    /**
+     * The pattern that is reused for every pattern passed on
+     * to {@link #sink}.
+     */
+    private PackedPattern scratch;
     /**
      * <code>counter</code> is used to keep track of the
      * number of patterns that have already been read.
@@ -58,6 +79,39 @@ public class PatternReader {
       this.pattern = new Pattern[numberOfPatternsToRead];
       this.counter=0;
     }
+    /**
+     * @param outputLayer
+     * @param numberOfPatternsToRead
+     * @param packed if <code>true</code>, the output is stored
+     * as {@link PackedPattern}s, which needs about an eighth
+     * of the memory
+     */
+    public PatternReader(Neuron[] outputLayer, int numberOfPatternsToRead, boolean packed) {
+      this.outputLayer = outputLayer;
+      this.numberOfPatternsToRead = numberOfPatternsToRead;
+      if(packed) {
+        this.packedPattern = new PackedPattern[numberOfPatternsToRead];
+      } else {
+        this.pattern = new Pattern[numberOfPatternsToRead];
+      }
+      this.counter=0;
+    }
+    /**
+     * Constructs a PatternReader that doesn't store the output
+     * but passes every pattern on to the specified
+     * {@link PatternSink}. The sink is flushed after the last
+     * pattern has been read.
+     * @param outputLayer
+     * @param numberOfPatternsToRead
+     * @param sink
+     */
+    public PatternReader(Neuron[] outputLayer, int numberOfPatternsToRead, PatternSink sink) {
+      this.outputLayer = outputLayer;
+      this.numberOfPatternsToRead = numberOfPatternsToRead;
+      this.sink = sink;
+      this.scratch = new PackedPattern(outputLayer.length);
+      this.counter=0;
+    }
     //methods
     /**
      * @return the number of patterns that have already been
@@ -67,6 +121,40 @@ public class PatternReader {
       return counter;
     }
 
+    /**
+     * Sets the number of patterns that have already been read,
+     * so the next pattern read is stored at the specified index.
+     * If the output is passed on to a {@link PatternSink}, the
+     * patterns already passed on can't be taken back, so the
+     * number can't be changed.
+     * @param numberOfPatternsRead
+     * @throws IllegalStateException if the output is passed on
+     * to a PatternSink and the number differs from the current one
+     */
+    void setNumberOfPatternsRead(int numberOfPatternsRead) {
+      if(sink != null && numberOfPatternsRead != counter) {
+        throw new IllegalStateException("The output is passed on to a PatternSink, " +
+                "the patterns already read can't be read again!");
+      }
+      this.counter = numberOfPatternsRead;
+    }
+
+    /**
+     * Flushes the {@link PatternSink} the output is passed on
+     * to, if there is one.
+     * @throws PatternGiverReaderCommunicationException
+     */
+    void flush() throws PatternGiverReaderCommunicationException {
+      if(sink != null) {
+        try {
+          sink.flush();
+        } catch (IOException e) {
+          throw new PatternGiverReaderCommunicationException("Can't pass the output " +
+                  "on to the sink!", e);
+        }
+      }
+    }
+
     /**
      * reads the current output of the neural net
      * @throws PatternGiverReaderCommunicationException
@@ -75,6 +163,33 @@ public class PatternReader {
      if(counter >= numberOfPatternsToRead) {
        throw new PatternGiverReaderCommunicationException("An error occured when reading output from the" +
        		"output layer!");
+     } else if(sink != null) {
+       long[] words = scratch.words;
+       Arrays.fill(words, 0L);
+       for (int i = 0; i < outputLayer.length; ++i) {
+         if(outputLayer[i].hasFired()) {
+           words[i >>> 6] |= 1L << i;
+         }
+       }
+       try {
+         sink.write(scratch);
+         ++counter;
+         if(counter == numberOfPatternsToRead) {
+           sink.flush();
+         }
+       } catch (IOException e) {
+         throw new PatternGiverReaderCommunicationException("Can't pass the output " +
+                 "on to the sink!", e);
+       }
+     } else if(pattern == null) {
+       PackedPattern p = new PackedPattern(outputLayer.length);
+       for (int i = 0; i < outputLayer.length; ++i) {
+         if(outputLayer[i].hasFired()) {
+           p.words[i >>> 6] |= 1L << i;
+         }
+       }
+       packedPattern[counter] = p;
+       ++counter;
      } else {
        int i;
        pattern[counter] = new Pattern(new boolean[outputLayer.length]);
@@ -87,9 +202,17 @@ public class PatternReader {
 
     /**
      * @return a {@link java.lang.String} containing '0's
-     * and '1's that represents the read output patterns.
+     * and '1's that represents the read output patterns, or
+     * <code>null</code> if the output is passed on to a
+     * {@link PatternSink}.
      */
     public String exportPattern(){
+      if(sink != null) {
+        return null;
+      }
+      if(pattern == null) {
+        return PatternConverter.packedPatternToStr(packedPattern, outputLayer.length);
+      }
       return PatternConverter.patternToStr(pattern, outputLayer.length);
     }
     
@@ -118,10 +241,49 @@ public class PatternReader {
         this.outputLayer = outputLayer;
     }
     /**
-     * @return Returns the patterns read from the net.
+     * @return Returns the patterns read from the net. If this
+     * PatternReader stores packed output, the patterns are
+     * unpacked on every call. If the output is passed on to a
+     * {@link PatternSink}, <code>null</code> is returned.
      */
     public Pattern[] getPattern() {
+        if(sink != null) {
+            return null;
+        }
+        if(pattern == null) {
+            return PatternConverter.unpack(packedPattern);
+        }
         return pattern;
     }
+    /**
+     * @return Returns the patterns read from the net as
+     * {@link PackedPattern}s. If this PatternReader doesn't
+     * store packed output, the patterns are packed on every
+     * call. If the output is passed on to a {@link PatternSink},
+     * <code>null</code> is returned.
+     */
+    public PackedPattern[] getPackedPattern() {
+        if(sink != null) {
+            return null;
+        }
+        if(packedPattern == null) {
+            return PatternConverter.pack(pattern);
+        }
+        return packedPattern;
+    }
+    /**
+     * @return <code>true</code> if the output is stored as
+     * {@link PackedPattern}s
+     */
+    public boolean isPacked() {
+        return packedPattern != null;
+    }
+    /**
+     * @return Returns the sink the output is passed on to, or
+     * <code>null</code> if the output is stored.
+     */
+    public PatternSink getSink() {
+        return sink;
+    }
     
 }
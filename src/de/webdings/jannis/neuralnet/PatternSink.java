@@ -0,0 +1,48 @@
+/* PatternSink.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.IOException;
+
+/**
+ * A PatternSink receives the output patterns read by a
+ * {@link PatternReader} one at a time, as soon as they are
+ * read. Unlike the arrays a PatternReader usually stores the
+ * output in, a sink doesn't need to keep the patterns in
+ * memory: it can e.g. write them to a file, like
+ * {@link WriterPatternSink} does, or just evaluate them.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see PatternReader#PatternReader(Neuron[], int, PatternSink)
+ */
+public interface PatternSink {
+    /**
+     * Receives the next output pattern. The PackedPattern is
+     * reused for the next pattern once this method returns, so
+     * implementations must copy it if they want to keep it.
+     * @param pattern
+     * @throws IOException
+     */
+    public void write(PackedPattern pattern) throws IOException;
+
+    /**
+     * Is called after the last pattern has been written.
+     * @throws IOException
+     */
+    public void flush() throws IOException;
+}
@@ -0,0 +1,55 @@
+/* PatternSource.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import de.webdings.jannis.exceptions.PatternCreateException;
+
+/**
+ * A PatternSource provides patterns of a fixed size by
+ * index. Unlike an array of {@link Pattern}s, it doesn't
+ * need to keep all patterns in memory: the patterns can be
+ * decoded when they are asked for, e.g. from a
+ * {@link MappedPatternFile}. A {@link PatternGiver} can present
+ * a net with the patterns of a PatternSource.</p>
+ * <p>Implementations must allow {@link #getPackedPattern(int)}
+ * to be called by several threads at the same time.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see MappedPatternFile
+ */
+public interface PatternSource {
+    /**
+     * @return the number of patterns this source provides
+     */
+    public int numberOfPatterns();
+
+    /**
+     * @return the number of entries of every pattern
+     */
+    public int patternSize();
+
+    /**
+     * @param index the index of the pattern, from <code>0</code>
+     * to {@link #numberOfPatterns()}<code>-1</code>
+     * @return a new PackedPattern containing the pattern of the
+     * specified index
+     * @throws PatternCreateException if the pattern can't be
+     * decoded
+     */
+    public PackedPattern getPackedPattern(int index) throws PatternCreateException;
+}
@@ -0,0 +1,49 @@
+/* RunAdapter.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+/**
+ * RunAdapter implements every method of {@link RunListener}
+ * with an empty one. Subclasses only override the methods
+ * they need.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+public abstract class RunAdapter implements RunListener {
+    //methods
+    public void runStarted(int firstPattern, int numberOfPatterns) {
+    }
+
+    public void patternStarted(int index) {
+    }
+
+    public void layerProcessed(int index, int layerID, int fired, int synapsesEvaluated) {
+    }
+
+    public void patternProcessed(int index, long nanos) {
+    }
+
+    public void runFinished(int numberOfPatternsProcessed, long nanos) {
+    }
+
+    public void patternTaught(int index, int bitErrors) {
+    }
+
+    public void epochFinished(int epoch, long error, long nanos) {
+    }
+}
@@ -0,0 +1,101 @@
+/* RunListener.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+/**
+ * A RunListener is told about the progress of a run, i.e. of
+ * a call of {@link Coordinator#start()}, and of training. It is
+ * attached with {@link Coordinator#setRunListener(RunListener)},
+ * {@link Teacher#setRunListener(RunListener)} or
+ * {@link EpochTrainer#setRunListener(RunListener)}. Without a
+ * listener none of the numbers passed on here are counted.</p>
+ * <p>The methods are called by the thread that runs the net,
+ * so they should return quickly. A listener attached to
+ * several Coordinators that run at the same time has to be
+ * thread-safe. {@link RunAdapter} implements every method
+ * with an empty one, {@link RunMetrics} collects the numbers.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see RunAdapter
+ * @see RunMetrics
+ */
+public interface RunListener {
+    /**
+     * Is called when {@link Coordinator#start()} begins.
+     * @param firstPattern the index of the first pattern of
+     * the run
+     * @param numberOfPatterns the number of patterns the
+     * Coordinator presents the net with in total
+     */
+    public void runStarted(int firstPattern, int numberOfPatterns);
+
+    /**
+     * Is called before the net is presented with a pattern.
+     * @param index the index of the pattern
+     */
+    public void patternStarted(int index);
+
+    /**
+     * Is called after the neurons of a layer have fired.
+     * @param index the index of the current pattern
+     * @param layerID the ID of the layer
+     * @param fired the number of neurons of the layer that
+     * have fired
+     * @param synapsesEvaluated the number of synapses the
+     * neurons that have fired passed their activation on to
+     */
+    public void layerProcessed(int index, int layerID, int fired, int synapsesEvaluated);
+
+    /**
+     * Is called after the output of a pattern has been read
+     * and, while training, the net has been taught.
+     * @param index the index of the pattern
+     * @param nanos the time needed for the pattern in
+     * nanoseconds
+     */
+    public void patternProcessed(int index, long nanos);
+
+    /**
+     * Is called when {@link Coordinator#start()} returns,
+     * because all patterns have been processed or the run
+     * has been cancelled.
+     * @param numberOfPatternsProcessed the number of patterns
+     * processed during this run
+     * @param nanos the duration of the run in nanoseconds
+     */
+    public void runFinished(int numberOfPatternsProcessed, long nanos);
+
+    /**
+     * Is called by a {@link Teacher} after it has compared the
+     * output of a pattern to the desired output.
+     * @param index the index of the pattern
+     * @param bitErrors the number of output entries that
+     * differed from the desired output
+     */
+    public void patternTaught(int index, int bitErrors);
+
+    /**
+     * Is called by an {@link EpochTrainer} after every epoch.
+     * @param epoch the number of the epoch, starting with
+     * <code>0</code>
+     * @param error the number of output entries that differed
+     * from the desired output during the epoch
+     * @param nanos the duration of the epoch in nanoseconds
+     */
+    public void epochFinished(int epoch, long error, long nanos);
+}
@@ -0,0 +1,271 @@
+/* RunMetrics.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RunMetrics is a {@link RunListener} that counts what happens
+ * during runs and training: patterns, firing neurons per
+ * layer, synapses evaluated, bit errors and epochs. It also
+ * keeps a histogram of the time needed per pattern.</p>
+ * <p>The counters are {@link LongAdder}s, so several
+ * Coordinators running in different threads can share a
+ * RunMetrics without waiting for each other. The histogram
+ * has a bucket for every power of two: bucket b counts the
+ * patterns that needed at least 2<sup>b-1</sup> and less
+ * than 2<sup>b</sup> nanoseconds. So percentiles are only
+ * accurate to a factor of two, which is enough to see how the
+ * latency is distributed and costs a single atomic increment
+ * per pattern.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see RunListener
+ */
+public class RunMetrics implements RunListener {
+    //attributes
+    private final LongAdder runs;
+    private final LongAdder patterns;
+    /**
+     * the patterns processed by finished runs
+     */
+    private final LongAdder patternsInRuns;
+    /**
+     * the duration of all finished runs in nanoseconds
+     */
+    private final LongAdder runNanos;
+    private final LongAdder synapsesEvaluated;
+    private final LongAdder bitErrors;
+    private final LongAdder epochs;
+    private volatile long lastEpochError;
+    /**
+     * the number of neurons that have fired in every layer.
+     * The array grows when a layer is reported for the first
+     * time.
+     */
+    private volatile LongAdder[] fired;
+    /**
+     * the number of patterns in every bucket of the latency
+     * histogram
+     */
+    private final AtomicLongArray latency;
+
+    //constructors
+    public RunMetrics() {
+        runs = new LongAdder();
+        patterns = new LongAdder();
+        patternsInRuns = new LongAdder();
+        runNanos = new LongAdder();
+        synapsesEvaluated = new LongAdder();
+        bitErrors = new LongAdder();
+        epochs = new LongAdder();
+        lastEpochError = -1;
+        fired = new LongAdder[0];
+        latency = new AtomicLongArray(64);
+    }
+
+    //methods
+    public void runStarted(int firstPattern, int numberOfPatterns) {
+        runs.increment();
+    }
+
+    public void patternStarted(int index) {
+    }
+
+    public void layerProcessed(int index, int layerID, int fired, int synapsesEvaluated) {
+        LongAdder[] counters = this.fired;
+        if(layerID >= counters.length) {
+            counters = grow(layerID+1);
+        }
+        counters[layerID].add(fired);
+        this.synapsesEvaluated.add(synapsesEvaluated);
+    }
+
+    private synchronized LongAdder[] grow(int numberOfLayers) {
+        LongAdder[] counters = fired;
+        if(numberOfLayers > counters.length) {
+            LongAdder[] buffer = new LongAdder[numberOfLayers];
+            System.arraycopy(counters, 0, buffer, 0, counters.length);
+            for(int i=counters.length;i<numberOfLayers;++i) {
+                buffer[i] = new LongAdder();
+            }
+            fired = buffer;
+            counters = buffer;
+        }
+        return counters;
+    }
+
+    public void patternProcessed(int index, long nanos) {
+        patterns.increment();
+        latency.incrementAndGet(bucket(nanos));
+    }
+
+    /**
+     * @return the bucket of the latency histogram for the
+     * specified time, i.e. the number of bits needed for it
+     */
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(63, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    public void runFinished(int numberOfPatternsProcessed, long nanos) {
+        patternsInRuns.add(numberOfPatternsProcessed);
+        runNanos.add(nanos);
+    }
+
+    public void patternTaught(int index, int bitErrors) {
+        this.bitErrors.add(bitErrors);
+    }
+
+    public void epochFinished(int epoch, long error, long nanos) {
+        epochs.increment();
+        lastEpochError = error;
+    }
+
+    /**
+     * @return the number of runs started
+     */
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    /**
+     * @return the number of patterns processed
+     */
+    public long getPatterns() {
+        return patterns.sum();
+    }
+
+    /**
+     * @return the number of patterns processed per second by
+     * the runs that have finished, or <code>0</code> if no run
+     * has finished yet
+     */
+    public double getPatternsPerSecond() {
+        long nanos = runNanos.sum();
+        return nanos > 0 ? patternsInRuns.sum() * 1e9 / nanos : 0;
+    }
+
+    /**
+     * @return the number of neurons that have fired in every
+     * layer
+     */
+    public long[] getFired() {
+        LongAdder[] counters = fired;
+        long[] result = new long[counters.length];
+        for(int i=0;i<counters.length;++i) {
+            result[i] = counters[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of synapses neurons that have fired
+     * passed their activation on to
+     */
+    public long getSynapsesEvaluated() {
+        return synapsesEvaluated.sum();
+    }
+
+    /**
+     * @return the number of output entries that differed from
+     * the desired output while the net was taught
+     */
+    public long getBitErrors() {
+        return bitErrors.sum();
+    }
+
+    /**
+     * @return the number of epochs finished
+     */
+    public long getEpochs() {
+        return epochs.sum();
+    }
+
+    /**
+     * @return the error of the last epoch, or <code>-1</code>
+     * if no epoch has finished yet
+     */
+    public long getLastEpochError() {
+        return lastEpochError;
+    }
+
+    /**
+     * @return the latency histogram: entry b is the number of
+     * patterns that needed less than 2<sup>b</sup> and at least
+     * 2<sup>b-1</sup> nanoseconds
+     */
+    public long[] getLatencyHistogram() {
+        long[] result = new long[latency.length()];
+        for(int i=0;i<result.length;++i) {
+            result[i] = latency.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates a percentile of the time needed per pattern.
+     * @param percentile e.g. <code>50</code> for the median or
+     * <code>99</code>
+     * @return the upper bound of the bucket of the latency
+     * histogram the percentile falls into in nanoseconds, or
+     * <code>0</code> if no pattern has been processed
+     */
+    public long getLatencyPercentile(double percentile) {
+        long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for(int i=0;i<histogram.length;++i) {
+            total += histogram[i];
+        }
+        if(total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.max(0, Math.min(100, percentile)) / 100);
+        long count = 0;
+        for(int i=0;i<histogram.length;++i) {
+            count += histogram[i];
+            if(count >= rank && count > 0) {
+                return i == 63 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Sets every counter and the histogram to <code>0</code>.
+     * Calls made at the same time may or may not be counted.
+     */
+    public void reset() {
+        runs.reset();
+        patterns.reset();
+        patternsInRuns.reset();
+        runNanos.reset();
+        synapsesEvaluated.reset();
+        bitErrors.reset();
+        epochs.reset();
+        lastEpochError = -1;
+        LongAdder[] counters = fired;
+        for(int i=0;i<counters.length;++i) {
+            counters[i].reset();
+        }
+        for(int i=0;i<latency.length();++i) {
+            latency.set(i, 0);
+        }
+    }
+}
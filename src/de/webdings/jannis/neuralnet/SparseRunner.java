@@ -0,0 +1,266 @@
+/* SparseRunner.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.Arrays;
+
+import de.webdings.jannis.exceptions.PatternLayerMismatchException;
+
+/**
+ * SparseRunner presents a {@link CompiledNet} with input
+ * and only visits the neurons that actually received
+ * activation. It is meant for input patterns with few
+ * <code>true</code> entries, where most of the net stays
+ * silent.</p>
+ * <p>For every layer SparseRunner keeps a frontier: the
+ * neurons of that layer whose net activation has been changed
+ * by a neuron that fired. Only these neurons are checked
+ * against their treshold, and only these are cleared after the
+ * pattern has been processed. Neurons with a treshold of
+ * <code>0</code> or less can fire without any input, so they
+ * are always part of the frontier. The frontier of a layer is
+ * sorted before it is processed, so activation is summed up
+ * in the same order as in {@link Coordinator#start()} and the
+ * output is the same.</p>
+ * <p>This only works for feed-forward nets, where every
+ * synapse leads to a higher layer. Other nets are processed
+ * the usual way. A SparseRunner must only be used by one
+ * thread at a time; the CompiledNet can be shared.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see CompiledNet
+ */
+public class SparseRunner {
+    //attributes
+    /**
+     * the net to be presented with input
+     */
+    private CompiledNet net;
+    /**
+     * the activation of the net while a pattern is processed
+     */
+    private ActivationState state;
+    /**
+     * the layer of every neuron
+     */
+    private int[] layerOf;
+    /**
+     * the neurons of every layer that have to be checked
+     * against their treshold
+     */
+    private int[][] frontier;
+    /**
+     * the number of neurons in the frontier of every layer
+     */
+    private int[] frontierSize;
+    /**
+     * the number of neurons at the beginning of every frontier
+     * that are always part of it because their treshold is
+     * <code>0</code> or less
+     */
+    private int[] alwaysChecked;
+    /**
+     * <code>true</code> for every neuron in a frontier
+     */
+    private boolean[] inFrontier;
+    /**
+     * the input neurons that have fired
+     */
+    private int[] firedInput;
+    private int firedInputSize;
+    /**
+     * <code>true</code> if every synapse leads to a higher layer
+     */
+    private boolean feedForward;
+
+    //constructors
+    /**
+     * @param net
+     */
+    public SparseRunner(CompiledNet net) {
+        this.net = net;
+        this.state = net.newActivationState();
+        int numberOfLayers = net.layerStart.length-1;
+        int numberOfNeurons = net.sigma.length;
+        layerOf = new int[numberOfNeurons];
+        frontier = new int[numberOfLayers][];
+        frontierSize = new int[numberOfLayers];
+        alwaysChecked = new int[numberOfLayers];
+        inFrontier = new boolean[numberOfNeurons];
+        firedInput = new int[net.layerStart[1]];
+        for(int i=0;i<numberOfLayers;++i) {
+            frontier[i] = new int[net.layerStart[i+1]-net.layerStart[i]];
+            for(int n=net.layerStart[i];n<net.layerStart[i+1];++n) {
+                layerOf[n] = i;
+                if(i > 0 && net.sigma[n] <= 0) {
+                    frontier[i][alwaysChecked[i]++] = n;
+                    inFrontier[n] = true;
+                }
+            }
+            frontierSize[i] = alwaysChecked[i];
+        }
+        feedForward = true;
+        for(int n=0;n<numberOfNeurons && feedForward;++n) {
+            for(int k=net.synapseStart[n];k<net.synapseStart[n+1];++k) {
+                if(layerOf[net.synapseTarget[k]] <= layerOf[n]) {
+                    feedForward = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    //methods
+    /**
+     * Presents the net with the specified input pattern.
+     * @param input
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(Pattern input) throws PatternLayerMismatchException {
+        if(!feedForward) {
+            return net.run(input, state);
+        }
+        net.checkInput(input);
+        int inputSize = net.layerStart[1];
+        for(int n=0;n<inputSize;++n) {
+            if(input.entries[n]) {
+                firedInput[firedInputSize++] = n;
+                fire(n);
+            }
+        }
+        return finish();
+    }
+
+    /**
+     * Presents the net with the specified input pattern. Only
+     * the <code>true</code> entries of the pattern are visited.
+     * @param input
+     * @return the output pattern produced by the net
+     * @throws PatternLayerMismatchException if the pattern is
+     * smaller than the input layer
+     */
+    public Pattern run(PackedPattern input) throws PatternLayerMismatchException {
+        int inputSize = net.layerStart[1];
+        if(input.size() < inputSize) {
+            throw new PatternLayerMismatchException("The size of the input pattern " +
+                    "doesn't match the size of the input layer!");
+        }
+        if(!feedForward) {
+            return net.run(input.toPattern(), state);
+        }
+        long[] words = input.words;
+        for(int w=0;w<words.length;++w) {
+            long word = words[w];
+            while(word != 0) {
+                int n = (w << 6) + Long.numberOfTrailingZeros(word);
+                if(n >= inputSize) {
+                    break;
+                }
+                firedInput[firedInputSize++] = n;
+                fire(n);
+                word &= word - 1;
+            }
+        }
+        return finish();
+    }
+
+    /**
+     * Processes the frontiers layer by layer, reads the output
+     * and clears the neurons that have been visited.
+     */
+    private Pattern finish() {
+        float[] activation = state.net;
+        int i, j, n;
+        for(i=1;i<frontier.length;++i) {
+            int[] f = frontier[i];
+            Arrays.sort(f, 0, frontierSize[i]);
+            for(j=0;j<frontierSize[i];++j) {
+                n = f[j];
+                if(activation[n]>=net.sigma[n]) {
+                    fire(n);
+                }
+            }
+        }
+        Pattern output = net.readOutput(state.fired);
+        //clear everything that has been touched
+        for(j=0;j<firedInputSize;++j) {
+            state.fired[firedInput[j]] = false;
+        }
+        firedInputSize = 0;
+        for(i=1;i<frontier.length;++i) {
+            int[] f = frontier[i];
+            for(j=0;j<frontierSize[i];++j) {
+                n = f[j];
+                activation[n] = 0;
+                state.fired[n] = false;
+                if(net.sigma[n] > 0) {
+                    inFrontier[n] = false;
+                }
+            }
+            //keep the neurons that are always checked at the
+            //beginning of the frontier, in ascending order
+            if(alwaysChecked[i] > 0) {
+                int k = 0;
+                for(j=0;j<frontierSize[i];++j) {
+                    if(net.sigma[f[j]] <= 0) {
+                        f[k++] = f[j];
+                    }
+                }
+            }
+            frontierSize[i] = alwaysChecked[i];
+        }
+        return output;
+    }
+
+    /**
+     * Lets neuron n fire and adds its targets to their frontiers.
+     */
+    private void fire(int n) {
+        float[] activation = state.net;
+        int end = net.synapseStart[n+1];
+        for(int k=net.synapseStart[n];k<end;++k) {
+            int target = net.synapseTarget[k];
+            activation[target] += net.synapseWeight[k];
+            if(!inFrontier[target]) {
+                inFrontier[target] = true;
+                int layer = layerOf[target];
+                frontier[layer][frontierSize[layer]++] = target;
+            }
+        }
+        activation[n] = 0;
+        state.fired[n] = true;
+    }
+
+    /**
+     * @return <code>true</code> if only the neurons that received
+     * activation are visited, i.e. if every synapse of the net
+     * leads to a higher layer
+     */
+    public boolean isFeedForward() {
+        return feedForward;
+    }
+
+    /**
+     * @return Returns the net.
+     */
+    public CompiledNet getNet() {
+        return net;
+    }
+}
@@ -61,6 +61,11 @@ public class Synapse {
      */
     public void setSource(Neuron source) {
         this.source = source;
+        if(target != null) {
+            //the target's incoming connections now come from
+            //somewhere else
+            ++target.incomingModifications;
+        }
     }
     /**
      * @return Returns the target neuron.
@@ -72,6 +77,11 @@ public class Synapse {
      * @param target The target neuron to set.
      */
     public void setTarget(Neuron target) {
+        //keep the incoming connections of the targets up to date
+        if(this.target != null && this.target.removeIncomingConnection(this)
+                && target != null) {
+            target.addIncomingConnection(this);
+        }
         this.target = target;
     }
     /**
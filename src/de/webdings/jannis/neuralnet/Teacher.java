@@ -16,10 +16,10 @@ Free Software Foundation, Inc.,<br>
 package de.webdings.jannis.neuralnet;
 
 import java.io.IOException;
+import java.util.IdentityHashMap;
 
 import de.webdings.jannis.exceptions.PatternCreateException;
 import de.webdings.jannis.exceptions.PatternGiverReaderCommunicationException;
-import de.webdings.tools.files.TextFiles;
 
 /**
  * Teacher is used to train a neural net. Currently only
@@ -38,8 +38,90 @@ public class Teacher {
      * that brings the net closer to producing the desired output.
      */
     protected Pattern[] desiredOutput;
+    /**
+     * <code>packedDesiredOutput</code> is used instead of
+     * {@link #desiredOutput} if the desired output is
+     * specified as {@link PackedPattern}s.
+     */
+    protected PackedPattern[] packedDesiredOutput;
+    /**
+     * <code>desiredOutputSource</code> is used instead of
+     * {@link #desiredOutput} if the desired output is provided
+     * by a {@link PatternSource}. The patterns are decoded one
+     * at a time, when they are needed.
+     */
+    protected PatternSource desiredOutputSource;
     private Neuron[][] layers;
     private int counter;
+    /**
+     * the number of output entries that differed from the
+     * desired output since the last call of
+     * {@link #resetBitErrors()}
+     */
+    private long bitErrors;
+    /**
+     * the number of times a weight has been changed since this
+     * Teacher was constructed
+     */
+    private long weightUpdates;
+    /**
+     * {@link #weightUpdates} as of the end of the last pattern,
+     * for other threads
+     */
+    private volatile long publishedWeightUpdates;
+    /**
+     * is told about the bit errors of every pattern, may be
+     * <code>null</code>
+     */
+    private RunListener listener;
+    /**
+     * <code>incoming[i][j]</code> contains the synapses that lead
+     * from layer i-1 to neuron j of layer i. It is built from the
+     * {@link Neuron#getIncomingConnections() incoming connections}
+     * of the neurons the first time it is needed.
+     */
+    private Synapse[][][] incoming;
+    /**
+     * the neurons {@link #incoming} was built for
+     */
+    private Neuron[][] indexedNeurons;
+    /**
+     * {@link Neuron#incomingModifications} of every neuron when
+     * {@link #incoming} was built
+     */
+    private int[][] indexedModifications;
+    /**
+     * all synapses of {@link #incoming}, layer by layer and
+     * neuron by neuron
+     */
+    private Synapse[] trainedSynapses;
+    /**
+     * <code>incomingOffset[i][j]</code> is the index of the
+     * first synapse of <code>incoming[i][j]</code> in
+     * {@link #trainedSynapses}
+     */
+    private int[][] incomingOffset;
+    /**
+     * the amount a weight is changed by in case 1 and 2 of
+     * {@link #adjustWeights(boolean, boolean, boolean, Synapse)}
+     */
+    private float learningStep;
+    /**
+     * the number of patterns after which the weights are changed
+     */
+    private int batchSize;
+    /**
+     * the number of patterns compared since the weights were
+     * last changed
+     */
+    private int patternsInBatch;
+    /**
+     * for every synapse of {@link #trainedSynapses}, the number
+     * of times it should have been increased minus the number
+     * of times it should have been decreased during the
+     * current batch
+     */
+    private int[] pendingChanges;
     
     //constructors
     /**
@@ -59,8 +141,10 @@ public class Teacher {
      * @throws IOException
      */
     public Teacher(String fileNameDesiredOutput, Neuron[][] layers) throws PatternCreateException, IOException {
-      this.desiredOutput = PatternConverter.strToPattern(TextFiles.readFromFile(fileNameDesiredOutput),layers[layers.length-1].length);
+      this.desiredOutput = PatternConverter.readPatternFile(fileNameDesiredOutput, layers[layers.length-1].length);
       this.layers = layers;
+      this.learningStep = 0.1f;
+      this.batchSize = 1;
     }
 
     /**
@@ -78,6 +162,48 @@ public class Teacher {
     public Teacher(Pattern[] desiredOutput, Neuron[][] layers) {
       this.desiredOutput = desiredOutput;
       this.layers = layers;
+      this.learningStep = 0.1f;
+      this.batchSize = 1;
+      this.counter = 0;
+    }
+
+    /**
+     * @param desiredOutput
+     * @param net
+     */
+    public Teacher(PackedPattern[] desiredOutput, NeuralNet net) {
+        this(desiredOutput, net.getLayers());
+    }
+    
+    /**
+     * @param desiredOutput
+     * @param layers
+     */
+    public Teacher(PackedPattern[] desiredOutput, Neuron[][] layers) {
+      this.packedDesiredOutput = desiredOutput;
+      this.layers = layers;
+      this.learningStep = 0.1f;
+      this.batchSize = 1;
+      this.counter = 0;
+    }
+
+    /**
+     * @param desiredOutput e.g. a {@link BinaryPatternFile}
+     * @param net
+     */
+    public Teacher(PatternSource desiredOutput, NeuralNet net) {
+        this(desiredOutput, net.getLayers());
+    }
+    
+    /**
+     * @param desiredOutput e.g. a {@link BinaryPatternFile}
+     * @param layers
+     */
+    public Teacher(PatternSource desiredOutput, Neuron[][] layers) {
+      this.desiredOutputSource = desiredOutput;
+      this.layers = layers;
+      this.learningStep = 0.1f;
+      this.batchSize = 1;
       this.counter = 0;
     }
 
@@ -90,14 +216,179 @@ public class Teacher {
       return counter;
     }
 
+    /**
+     * Sets the number of patterns that have already been
+     * compared, so the next comparison uses the desired
+     * output of the specified index. Changes that are still
+     * pending are made first, so a batch never spans two runs.
+     * @param amountCompared
+     */
+    void setAmountCompared(int amountCompared) {
+      applyPendingChanges();
+      this.counter = amountCompared;
+    }
+
+    /**
+     * @return Returns the amount a weight is changed by for
+     * every pattern that asks for a change.
+     */
+    public float getLearningStep() {
+      return learningStep;
+    }
+
+    /**
+     * @param learningStep The amount a weight is changed by for
+     * every pattern that asks for a change. The default is
+     * <code>0.1</code>.
+     */
+    public void setLearningStep(float learningStep) {
+      this.learningStep = learningStep;
+    }
+
+    /**
+     * @return Returns the number of patterns after which the
+     * weights are changed.
+     */
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    /**
+     * @return <code>true</code> if patterns of the current batch
+     * have been compared whose weight changes haven't been made
+     * yet
+     */
+    public boolean isInBatch() {
+      return patternsInBatch > 0;
+    }
+
+    /**
+     * Sets the number of patterns after which the weights are
+     * changed. With a batch size of <code>1</code>, the default,
+     * the weights are changed after every pattern. With larger
+     * batches the changes asked for by the patterns of a batch
+     * are added up and made in one sweep when the batch is
+     * complete, the last pattern has been compared or the run
+     * ends early (see {@link TrainingCoordinator#runEnded()}).
+     * Changes that are still pending are made first.
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+      if(batchSize < 1) {
+        throw new IllegalArgumentException("The batch size must be at least 1!");
+      }
+      applyPendingChanges();
+      this.batchSize = batchSize;
+    }
+
+    /**
+     * Makes the changes to the weights that have been asked for
+     * by the patterns of the current batch so far. This only
+     * does something if the batch size is larger than
+     * <code>1</code>.
+     */
+    public void applyPendingChanges() {
+      if(pendingChanges != null) {
+        for(int k=0;k<pendingChanges.length;++k) {
+          if(pendingChanges[k] != 0) {
+            trainedSynapses[k].setWeight(trainedSynapses[k].getWeight() + pendingChanges[k]*learningStep);
+            pendingChanges[k] = 0;
+            ++weightUpdates;
+          }
+        }
+        publishedWeightUpdates = weightUpdates;
+      }
+      patternsInBatch = 0;
+    }
+
+    /**
+     * @return the number of output entries that differed from
+     * the desired output since this Teacher was constructed or
+     * {@link #resetBitErrors()} was called
+     */
+    public long getBitErrors() {
+      return bitErrors;
+    }
+
+    /**
+     * @return the number of times a weight has been changed
+     * since this Teacher was constructed. In batch mode the
+     * changes of a batch count once per synapse when they are
+     * applied. This method can be called from any thread; the
+     * number is updated after every pattern.
+     */
+    public long getWeightUpdates() {
+      return publishedWeightUpdates;
+    }
+
+    /**
+     * Sets the number of bit errors to <code>0</code>.
+     */
+    public void resetBitErrors() {
+      bitErrors = 0;
+    }
+
+    /**
+     * @return Returns the listener that is told about the bit
+     * errors of every pattern, or <code>null</code>.
+     */
+    public RunListener getRunListener() {
+      return listener;
+    }
+
+    /**
+     * @param listener The listener to be told about the bit
+     * errors of every pattern. <code>null</code> removes it.
+     */
+    public void setRunListener(RunListener listener) {
+      this.listener = listener;
+    }
+
     /**
      * compares the actual output produced by the net to
-     * the desired output
+     * the desired output and counts the entries that differ
+     * @throws PatternCreateException if the desired output
+     * can't be decoded from its {@link PatternSource}
      */
-    void compareOutputToDesiredOutput() {
+    void compareOutputToDesiredOutput() throws PatternCreateException {
+      if(desiredOutput == null) {
+        PackedPattern desired = desiredOutputSource != null 
+            ? desiredOutputSource.getPackedPattern(counter) : packedDesiredOutput[counter];
+        for(int i=0;i<desired.size();++i) {
+          compare(layers[layers.length-1][i], (desired.words[i >>> 6] & (1L << i)) != 0);
+        }
+        return;
+      }
       for(int i=0;i<desiredOutput[0].entries.length;++i) {
-        layers[layers.length-1][i].setShouldHaveFired(desiredOutput[counter].entries[i]);
+        compare(layers[layers.length-1][i], desiredOutput[counter].entries[i]);
+      }
+    }
+
+    private void compare(Neuron neuron, boolean shouldHaveFired) {
+      neuron.setShouldHaveFired(shouldHaveFired);
+      if(neuron.hasFired() != shouldHaveFired) {
+        ++bitErrors;
+      }
+    }
+
+    /**
+     * @return the number of desired output patterns
+     */
+    int numberOfPatterns() {
+      if(desiredOutputSource != null) {
+        return desiredOutputSource.numberOfPatterns();
+      }
+      return desiredOutput != null ? desiredOutput.length : packedDesiredOutput.length;
+    }
+
+    /**
+     * @return the size of the desired output patterns
+     */
+    int patternSize() {
+      if(desiredOutputSource != null) {
+        return desiredOutputSource.patternSize();
       }
+      return desiredOutput != null ? desiredOutput[0].entries.length : packedDesiredOutput[0].size();
     }
 
     /**
@@ -114,13 +405,13 @@ public class Teacher {
      *   <td>Case 1</td>
      *   <td>the target has fired, but it wasn't supposed 
      *       to fire, the source has fired</td>
-     *   <td>decrease the synapse weight by 0.1</td>
+     *   <td>decrease the synapse weight by the learning step</td>
      *  </tr>
      *  <tr>
      *   <td>Case 2</td>
      *   <td>the target didn't fire, but it was supposed to
      *       fire, the source has fired</td>
-     *   <td>increase the synapse weight by 0.1</td>
+     *   <td>increase the synapse weight by the learning step</td>
      *  </tr>
      * </table>  
      * @param targetFired
@@ -129,6 +420,20 @@ public class Teacher {
      * @param synapse
      */
     void adjustWeights(boolean targetFired, boolean targetShouldHaveFired, boolean sourceFired, Synapse synapse) {
+            int change = weightChange(targetFired, targetShouldHaveFired, sourceFired, synapse);
+            if(change != 0) {
+              synapse.setWeight(synapse.getWeight() + change*learningStep);
+              ++weightUpdates;
+            }
+    }
+
+    /**
+     * Decides on the change of the weight of a synapse, see
+     * {@link #adjustWeights(boolean, boolean, boolean, Synapse)}.
+     * @return <code>-1</code> in case 1, <code>1</code> in case 2
+     * and <code>0</code> otherwise
+     */
+    private int weightChange(boolean targetFired, boolean targetShouldHaveFired, boolean sourceFired, Synapse synapse) {
             if(targetFired && targetShouldHaveFired && sourceFired) {
               //This was used in an attempt to implement
               //a backpropagation training method for 
@@ -140,44 +445,132 @@ public class Teacher {
 
             //Case 1:
             if(targetFired && !targetShouldHaveFired && sourceFired) {
-              synapse.setWeight(synapse.getWeight()-0.1f);
+              return -1;
             }
 
             //Case 2:
             if(!targetFired && targetShouldHaveFired && sourceFired) {
-              synapse.setWeight(synapse.getWeight()+0.1f);
               synapse.getSource().setShouldHaveFired(true);
+              return 1;
             }
+            return 0;
 
     }
 
     private void checkNetBackwards() {
+      if(!isIndexValid()) {
+        //pending changes refer to the old index
+        applyPendingChanges();
+        buildIndex();
+      }
+      if(batchSize > 1 && pendingChanges == null) {
+        pendingChanges = new int[trainedSynapses.length];
+      }
       Neuron currentNeuron;
-      Neuron potentialSource;
+      Synapse[] synapses;
       //Start with the output layer and count down to the 
       //first hidden layer
       for(int i=layers.length-1;i>0;--i) {
         //process every neuron of the current layer
         for(int j=0;j<layers[i].length;++j) {
           currentNeuron = layers[i][j];
-          //process the layer before the current one
-          for(int k=0;k<layers[i-1].length;++k) {
-            potentialSource = layers[i-1][k];
-            //check every neuron of that layer for a connection to the 
-            //curront neuron
-            for(int l=0;l<potentialSource.getConnections().length;++l) {
-              //if the potential source targets (among others) 
-              //the current neuron, the synapse weight of 
-              //the connection is modified (this happens in
-              //the method 'adjustWeights'
-              if(potentialSource.getConnections()[l].getTarget() == currentNeuron) {
-                adjustWeights(currentNeuron.hasFired(), currentNeuron.getShouldHaveFired(), potentialSource.hasFired(), potentialSource.getConnections()[l]);
-              }
+          //process every synapse that leads from the layer
+          //before the current one to the current neuron
+          synapses = incoming[i][j];
+          if(batchSize > 1) {
+            int offset = incomingOffset[i][j];
+            for(int k=0;k<synapses.length;++k) {
+              pendingChanges[offset+k] += weightChange(currentNeuron.hasFired(), currentNeuron.getShouldHaveFired(), synapses[k].getSource().hasFired(), synapses[k]);
+            }
+          } else {
+            for(int k=0;k<synapses.length;++k) {
+              adjustWeights(currentNeuron.hasFired(), currentNeuron.getShouldHaveFired(), synapses[k].getSource().hasFired(), synapses[k]);
             }
           }
+        }
+      }
+    }
+
+    /**
+     * @return <code>true</code> if {@link #incoming} still matches
+     * the neurons of the net and their incoming connections
+     */
+    private boolean isIndexValid() {
+      if(incoming == null || indexedNeurons.length != layers.length) {
+        return false;
+      }
+      for(int i=0;i<layers.length;++i) {
+        if(indexedNeurons[i].length != layers[i].length) {
+          return false;
+        }
+        for(int j=0;j<layers[i].length;++j) {
+          if(indexedNeurons[i][j] != layers[i][j]
+             || indexedModifications[i][j] != layers[i][j].incomingModifications) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
 
+    /**
+     * Builds {@link #incoming} from the incoming connections of
+     * the neurons. This takes time proportional to the number
+     * of neurons and synapses.
+     */
+    private void buildIndex() {
+      IdentityHashMap<Neuron, Integer> layerOf = new IdentityHashMap<Neuron, Integer>();
+      indexedNeurons = new Neuron[layers.length][];
+      indexedModifications = new int[layers.length][];
+      for(int i=0;i<layers.length;++i) {
+        indexedNeurons[i] = layers[i].clone();
+        indexedModifications[i] = new int[layers[i].length];
+        for(int j=0;j<layers[i].length;++j) {
+          layerOf.put(layers[i][j], Integer.valueOf(i));
+          indexedModifications[i][j] = layers[i][j].incomingModifications;
+        }
+      }
+      incoming = new Synapse[layers.length][][];
+      incoming[0] = new Synapse[layers[0].length][0];
+      incomingOffset = new int[layers.length][];
+      incomingOffset[0] = new int[layers[0].length];
+      int total = 0;
+      for(int i=1;i<layers.length;++i) {
+        incoming[i] = new Synapse[layers[i].length][];
+        for(int j=0;j<layers[i].length;++j) {
+          Synapse[] all = layers[i][j].getIncomingConnections();
+          int count = 0;
+          for(int k=0;k<all.length;++k) {
+            if(isInLayer(layerOf, all[k].getSource(), i-1)) {
+              ++count;
+            }
+          }
+          incoming[i][j] = new Synapse[count];
+          total += count;
+          count = 0;
+          for(int k=0;k<all.length;++k) {
+            if(isInLayer(layerOf, all[k].getSource(), i-1)) {
+              incoming[i][j][count++] = all[k];
+            }
+          }
+        }
+      }
+      trainedSynapses = new Synapse[total];
+      total = 0;
+      for(int i=1;i<layers.length;++i) {
+        incomingOffset[i] = new int[layers[i].length];
+        for(int j=0;j<layers[i].length;++j) {
+          incomingOffset[i][j] = total;
+          System.arraycopy(incoming[i][j], 0, trainedSynapses, total, incoming[i][j].length);
+          total += incoming[i][j].length;
         }
       }
+      pendingChanges = null;
+    }
+
+    private static boolean isInLayer(IdentityHashMap<Neuron, Integer> layerOf, Neuron neuron, int layerID) {
+      Integer layer = layerOf.get(neuron);
+      return layer != null && layer.intValue() == layerID;
     }
     
     /**
@@ -187,20 +580,66 @@ public class Teacher {
      * @throws PatternGiverReaderCommunicationException
      */
     public void teach() throws PatternGiverReaderCommunicationException {
-        if(counter >= desiredOutput.length) {
+        if(counter >= numberOfPatterns()) {
           throw new PatternGiverReaderCommunicationException("An error occured while teaching!");
         } else {
-          this.compareOutputToDesiredOutput();
+          long errorsBefore = bitErrors;
+          try {
+            this.compareOutputToDesiredOutput();
+          } catch (PatternCreateException e) {
+            throw new PatternGiverReaderCommunicationException("Can't read the desired output " 
+                    + counter + "!", e);
+          }
+          if(listener != null) {
+            listener.patternTaught(counter, (int) (bitErrors - errorsBefore));
+          }
           this.checkNetBackwards();
+          publishedWeightUpdates = weightUpdates;
           ++counter;
+          if(batchSize > 1 && (++patternsInBatch == batchSize || counter == numberOfPatterns())) {
+            applyPendingChanges();
+          }
         }
     }
 
     /**
      * @return the desired output the net is supposed to
-     * produced
+     * produced. If it was specified as {@link PackedPattern}s,
+     * it is unpacked on every call. If it is provided by a
+     * {@link PatternSource}, <code>null</code> is returned.
      */
     public Pattern[] getDesiredOutput() {
+        if(desiredOutputSource != null) {
+            return null;
+        }
+        if(desiredOutput == null) {
+            return PatternConverter.unpack(packedDesiredOutput);
+        }
         return desiredOutput;
     }
+
+    /**
+     * @return the desired output the net is supposed to
+     * produced as {@link PackedPattern}s. If it was specified
+     * as {@link Pattern}s, it is packed on every call. If it
+     * is provided by a {@link PatternSource}, <code>null</code>
+     * is returned.
+     */
+    public PackedPattern[] getPackedDesiredOutput() {
+        if(desiredOutputSource != null) {
+            return null;
+        }
+        if(packedDesiredOutput == null) {
+            return PatternConverter.pack(desiredOutput);
+        }
+        return packedDesiredOutput;
+    }
+
+    /**
+     * @return the source of the desired output, or
+     * <code>null</code> if it is kept in an array
+     */
+    public PatternSource getDesiredOutputSource() {
+        return desiredOutputSource;
+    }
 }
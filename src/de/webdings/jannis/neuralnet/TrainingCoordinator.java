@@ -68,7 +68,7 @@ public class TrainingCoordinator extends Coordinator {
       super(layers, fileNameInputPattern);
       this.teacher = teacher;
       if(layers[layers.length-1].length != 
-          teacher.getDesiredOutput()[0].entries.length) {
+          teacher.patternSize()) {
           throw new PatternLayerMismatchException
           ("The size of the desired output pattern " +
           "doesn't match the size of the output layer!");
@@ -104,7 +104,7 @@ public class TrainingCoordinator extends Coordinator {
           PatternLayerMismatchException{
       super(layers, fileNameInputPattern);
       this.teacher = new Teacher(fileNameDesiredOutputPattern, layers);
-      if(layers[layers.length-1].length != teacher.getDesiredOutput()[0].entries.length) {
+      if(layers[layers.length-1].length != teacher.patternSize()) {
           throw new PatternLayerMismatchException("The size of the desired output pattern " +
           "doesn't match the size of the output layer!");
       }
@@ -174,6 +174,74 @@ public class TrainingCoordinator extends Coordinator {
         }
     }
     
+    /**
+     * @param net The neural net to be coordinated
+     * @param inputPattern the input pattern used for
+     * the training
+     * @param desiredOutputPattern
+     * @throws PatternLayerMismatchException
+     */
+    public TrainingCoordinator(NeuralNet net, PackedPattern[] inputPattern, 
+    		PackedPattern[] desiredOutputPattern) throws PatternLayerMismatchException {
+    	this(net.getLayers(), inputPattern, desiredOutputPattern);
+    }
+    
+    /**
+     * @param layers The layers of the neural net to be coordinated
+     * @param inputPattern the input pattern used for
+     * the training
+     * @param desiredOutputPattern
+     * @throws PatternLayerMismatchException
+     */
+    public TrainingCoordinator(Neuron[][] layers, PackedPattern[] inputPattern, 
+    		PackedPattern[] desiredOutputPattern) throws PatternLayerMismatchException {
+    	super(layers, inputPattern);
+    	this.teacher = new Teacher(desiredOutputPattern, layers);
+    	if(layers[layers.length-1].length != desiredOutputPattern[0].size()) {
+            throw new PatternLayerMismatchException("The size of the desired output pattern " +
+            "doesn't match the size of the output layer!");
+        }
+    }
+    
+    /**
+     * Constructs a TrainingCoordinator that decodes the input
+     * patterns and the desired output one at a time, e.g. from
+     * {@link BinaryPatternFile}s.
+     * @param net The neural net to be coordinated
+     * @param inputPattern the input pattern used for
+     * the training
+     * @param desiredOutputPattern
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     * or the size of the desired output patterns doesn't match
+     * the size of the output layer
+     */
+    public TrainingCoordinator(NeuralNet net, PatternSource inputPattern, 
+    		PatternSource desiredOutputPattern) throws PatternLayerMismatchException {
+    	this(net.getLayers(), inputPattern, desiredOutputPattern);
+    }
+    
+    /**
+     * See {@link #TrainingCoordinator(NeuralNet, PatternSource, PatternSource)}
+     * @param layers The layers of the neural net to be coordinated
+     * @param inputPattern the input pattern used for
+     * the training
+     * @param desiredOutputPattern
+     * @throws PatternLayerMismatchException if the size of the
+     * input patterns doesn't match the size of the input layer
+     * or the size of the desired output patterns doesn't match
+     * the size of the output layer
+     */
+    public TrainingCoordinator(Neuron[][] layers, PatternSource inputPattern, 
+    		PatternSource desiredOutputPattern) throws PatternLayerMismatchException {
+    	super(layers, inputPattern);
+    	this.teacher = new Teacher(desiredOutputPattern, layers);
+    	if(layers[layers.length-1].length != desiredOutputPattern.patternSize()) {
+            throw new PatternLayerMismatchException("The size of the desired output pattern " +
+            "doesn't match the size of the output layer!");
+        }
+    }
+    
     /**
      * @param net The neural net to be coordinated
      * @param giver
@@ -206,35 +274,49 @@ public class TrainingCoordinator extends Coordinator {
     //METHODS
     
     /**
-     * This method overwrites the method of the superclass. It does the
-     * same as {@link de.webdings.jannis.neuralnet.Coordinator#start()}, but
-     * additionally calls the method {@link Teacher#teach()} at the appropriate
-     * time.
+     * This method overwrites the method of the superclass. If
+     * the run ends before the last pattern, e.g. because it has
+     * been cancelled, the weight changes of the incomplete batch
+     * are made, before the {@link RunListener} is told that the
+     * run has finished (see {@link Teacher#setBatchSize(int)}).
+     * 
+     * @see de.webdings.jannis.neuralnet.Coordinator#runEnded()
+     */
+    protected void runEnded() {
+      teacher.applyPendingChanges();
+    }
+
+    /**
+     * This method overwrites the method of the superclass. It 
+     * calls the method {@link Teacher#teach()} after every
+     * output pattern has been read.
      * 
      * @see de.webdings.jannis.neuralnet.Coordinator#start()
      */
-    public void start() throws PatternGiverReaderCommunicationException {
-      int i,j;
-      giver.nextPattern();
-      for(i=1;i<layers.length;++i) {
-        for (j = 0; j < layers[i].length; ++j) {
-          if (layers[i][j].tresholdReached()) {
-            layers[i][j].fire();
-          }
-        }
-      }
-      reader.readPattern();
-      //Lehrer starten
+    protected void patternRead() throws PatternGiverReaderCommunicationException {
       teacher.teach();
-      //Weitermachen
-      if(giver.numberSent() == reader.numberOfPatternsRead()) {
-        clearAll();
-        if(reader.numberOfPatternsRead() < reader.getNumberOfPatternsToRead()){
-          start();
-        }
-      } else {
-        throw new PatternGiverReaderCommunicationException("There was a problem in communication " +
-        		"between PatternGiver and PatternReader!");
-      }
+    }
+
+    /**
+     * This method overwrites the method of the superclass. It
+     * additionally sets the {@link Teacher} to the pattern of
+     * the specified index.
+     * 
+     * @see de.webdings.jannis.neuralnet.Coordinator#moveTo(int)
+     */
+    protected void moveTo(int index) {
+      super.moveTo(index);
+      teacher.setAmountCompared(index);
+    }
+
+    /**
+     * This method overwrites the method of the superclass. It
+     * additionally attaches the listener to the {@link Teacher}.
+     * 
+     * @see de.webdings.jannis.neuralnet.Coordinator#setRunListener(RunListener)
+     */
+    public void setRunListener(RunListener listener) {
+      super.setRunListener(listener);
+      teacher.setRunListener(listener);
     }
 }
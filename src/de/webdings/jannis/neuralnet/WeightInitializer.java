@@ -0,0 +1,314 @@
+/* WeightInitializer.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * WeightInitializer sets the weights of all synapses of a net,
+ * of a layer or of an array of weights at once. The weights
+ * are drawn from a {@link Distribution}.</p>
+ * <p>The weights are generated in blocks of
+ * {@link #BLOCK_SIZE} weights. Every block gets its own
+ * {@link SplittableRandom}, split off a generator seeded with
+ * the seed of the WeightInitializer, so the blocks can be
+ * filled by several threads and the weights still don't depend
+ * on the number of threads. Two WeightInitializers with the
+ * same seed and distribution produce the same weights for the
+ * same sequence of calls.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see WeightRandomizer
+ */
+public class WeightInitializer {
+    //attributes
+    /**
+     * the number of weights generated by one generator
+     */
+    public static final int BLOCK_SIZE = 65536;
+    /**
+     * the generator the generators of the blocks are split off
+     */
+    private SplittableRandom root;
+    private Distribution distribution;
+    private ForkJoinPool pool;
+
+    //constructors
+    /**
+     * Constructs a WeightInitializer that generates weights
+     * between -0.2 and +0.2 in steps of 0.1, like
+     * {@link WeightRandomizer#generateRandomWeight()} does.
+     * @param seed
+     */
+    public WeightInitializer(long seed) {
+        this(seed, decimal(0, 2));
+    }
+
+    /**
+     * @param seed
+     * @param distribution
+     */
+    public WeightInitializer(long seed, Distribution distribution) {
+        this.root = new SplittableRandom(seed);
+        this.distribution = distribution;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    //methods
+    /**
+     * Sets the weights of all synapses of the net.
+     * @param net
+     */
+    public void initialize(NeuralNet net) {
+        initialize(net.getLayers());
+    }
+
+    /**
+     * Sets the weights of all synapses of the specified layers,
+     * layer by layer, neuron by neuron.
+     * @param layers
+     */
+    public void initialize(Neuron[][] layers) {
+        int count = 0;
+        int i, j;
+        for(i=0;i<layers.length;++i) {
+            for(j=0;j<layers[i].length;++j) {
+                count += layers[i][j].getNumberOfConnections();
+            }
+        }
+        Synapse[] synapses = new Synapse[count];
+        count = 0;
+        for(i=0;i<layers.length;++i) {
+            count = collect(layers[i], synapses, count);
+        }
+        initialize(synapses);
+    }
+
+    /**
+     * Sets the weights of the outgoing synapses of all neurons
+     * of the specified layer.
+     * @param layer
+     */
+    public void initialize(Neuron[] layer) {
+        int count = 0;
+        for(int j=0;j<layer.length;++j) {
+            count += layer[j].getNumberOfConnections();
+        }
+        Synapse[] synapses = new Synapse[count];
+        collect(layer, synapses, 0);
+        initialize(synapses);
+    }
+
+    /**
+     * Sets the weights of all synapses of the specified
+     * {@link CompiledNet}.
+     * @param net
+     */
+    public void initialize(CompiledNet net) {
+        fill(net.synapseWeight);
+    }
+
+    private static int collect(Neuron[] layer, Synapse[] synapses, int count) {
+        for(int j=0;j<layer.length;++j) {
+            int n = layer[j].getNumberOfConnections();
+            System.arraycopy(layer[j].getConnections(), 0, synapses, count, n);
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Sets the weights of the specified synapses.
+     * @param synapses
+     */
+    public void initialize(Synapse[] synapses) {
+        fill(new float[synapses.length], synapses);
+    }
+
+    /**
+     * Fills the specified array with weights.
+     * @param weights
+     */
+    public void fill(float[] weights) {
+        fill(weights, null);
+    }
+
+    /**
+     * Fills <code>weights</code> and, if <code>synapses</code>
+     * isn't <code>null</code>, sets the weights of the synapses.
+     */
+    private void fill(float[] weights, Synapse[] synapses) {
+        int numberOfBlocks = (weights.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        //split the generators off one after the other, so they
+        //are the same no matter which thread fills which block
+        SplittableRandom[] generators = new SplittableRandom[numberOfBlocks];
+        for(int b=0;b<numberOfBlocks;++b) {
+            generators[b] = root.split();
+        }
+        Fill fill = new Fill(generators, weights, synapses, 0, weights.length);
+        if(numberOfBlocks > 1) {
+            pool.invoke(fill);
+        } else {
+            fill.compute();
+        }
+    }
+
+    private void fill(SplittableRandom generator, float[] weights, int from, int to) {
+        for(int k=from;k<to;++k) {
+            weights[k] = distribution.nextWeight(generator);
+        }
+    }
+
+    /**
+     * @return Returns the distribution.
+     */
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    /**
+     * @param distribution The distribution to set.
+     */
+    public void setDistribution(Distribution distribution) {
+        this.distribution = distribution;
+    }
+
+    /**
+     * @return Returns the pool the blocks are filled in.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @param pool The pool the blocks are filled in.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param min
+     * @param max
+     * @return a distribution of weights that are evenly
+     * distributed between <code>min</code> (inclusive) and
+     * <code>max</code> (exclusive)
+     */
+    public static Distribution uniform(final float min, final float max) {
+        return new Distribution() {
+            public float nextWeight(SplittableRandom generator) {
+                return min + (float) generator.nextDouble() * (max - min);
+            }
+        };
+    }
+
+    /**
+     * @param mean
+     * @param deviation
+     * @return a normal distribution of weights with the
+     * specified mean and standard deviation
+     */
+    public static Distribution gaussian(final float mean, final float deviation) {
+        return new Distribution() {
+            public float nextWeight(SplittableRandom generator) {
+                //Marsaglia's polar method
+                double u, v, s;
+                do {
+                    u = generator.nextDouble() * 2 - 1;
+                    v = generator.nextDouble() * 2 - 1;
+                    s = u * u + v * v;
+                } while(s >= 1 || s == 0);
+                return mean + deviation * (float) (u * Math.sqrt(-2 * Math.log(s) / s));
+            }
+        };
+    }
+
+    /**
+     * @param maxDigitBeforeDot
+     * @param maxDigitAfterDot
+     * @return a distribution of weights between -x.y and +x.y
+     * with one digit after the dot, where x is the specified
+     * maximum number before the dot and y is the specified
+     * maximum digit after the dot, see
+     * {@link WeightRandomizer#generateRandomWeight(int, int)}
+     */
+    public static Distribution decimal(final int maxDigitBeforeDot, final int maxDigitAfterDot) {
+        return new Distribution() {
+            public float nextWeight(SplittableRandom generator) {
+                int digitBeforeDot = generator.nextInt(maxDigitBeforeDot+1);
+                int digitAfterDot = generator.nextInt(maxDigitAfterDot+1);
+                float weight = (digitBeforeDot*10 + digitAfterDot) / 10f;
+                return generator.nextBoolean() ? -weight : weight;
+            }
+        };
+    }
+
+    /**
+     * A Distribution generates weights.
+     */
+    public interface Distribution {
+        /**
+         * @param generator the generator to draw random
+         * numbers from
+         * @return the next weight
+         */
+        public float nextWeight(SplittableRandom generator);
+    }
+
+    /**
+     * Fill generates the weights from <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive). Ranges of
+     * more than one block are split at a block boundary.
+     */
+    private class Fill extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SplittableRandom[] generators;
+        private final float[] weights;
+        private final Synapse[] synapses;
+        private final int from;
+        private final int to;
+
+        Fill(SplittableRandom[] generators, float[] weights, Synapse[] synapses, int from, int to) {
+            this.generators = generators;
+            this.weights = weights;
+            this.synapses = synapses;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if(to - from <= BLOCK_SIZE) {
+                if(to > from) {
+                    fill(generators[from / BLOCK_SIZE], weights, from, to);
+                }
+                if(synapses != null) {
+                    for(int k=from;k<to;++k) {
+                        synapses[k].setWeight(weights[k]);
+                    }
+                }
+            } else {
+                int blocks = (to - from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                int middle = from + (blocks / 2) * BLOCK_SIZE;
+                invokeAll(new Fill(generators, weights, synapses, from, middle),
+                        new Fill(generators, weights, synapses, middle, to));
+            }
+        }
+    }
+}
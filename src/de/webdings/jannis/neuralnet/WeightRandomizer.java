@@ -23,7 +23,10 @@ import java.util.Random;
  * that will be trained.</p>
  * <p>By standard, it generates weights ranging from -0.2 
  * and +0.2, yet different ranges can be specified.</p>
- * <p>It uses the {@link java.util.Random} class. 
+ * <p>It uses the {@link java.util.Random} class. A
+ * WeightRandomizer constructed with a seed always generates
+ * the same weights. To initialize the weights of a whole net
+ * at once, see {@link WeightInitializer}.
  * 
  * 
  * @author Stefan Thesing<br>
@@ -34,7 +37,24 @@ import java.util.Random;
  */
 public class WeightRandomizer {
     //ATTRIBUTES
-    private int i=0;
+    private Random generator;
+    //CONSTRUCTORS
+    /**
+     * Constructs a WeightRandomizer that generates different
+     * weights every time.
+     */
+    public WeightRandomizer() {
+        this.generator = new Random();
+    }
+
+    /**
+     * Constructs a WeightRandomizer that always generates the
+     * same weights for the same seed.
+     * @param seed
+     */
+    public WeightRandomizer(long seed) {
+        this.generator = new Random(seed);
+    }
     //METHODS
     /**
      * @return a random weight between -0.2 and +0.2
@@ -60,15 +80,12 @@ public class WeightRandomizer {
      * y is the specified maximum digit after the dot
      */
     public float generateRandomWeight(int maxDigitBeforeDot, int maxDigitAfterDot) {
-      Random generator = new Random(System.currentTimeMillis()+i);
       int digitBeforeDot = generator.nextInt(maxDigitBeforeDot+1);
       int digitAfterDot = generator.nextInt(maxDigitAfterDot+1);
-      String s = digitBeforeDot+ "." + digitAfterDot;
-      Float gewicht = new Float(s);
+      float gewicht = (digitBeforeDot*10 + digitAfterDot) / 10f;
       if(generator.nextBoolean()) {
-        gewicht = new Float(gewicht.floatValue() * -1);
+        gewicht = -gewicht;
       }
-      ++i;
-      return gewicht.floatValue();
+      return gewicht;
     }
 }
@@ -0,0 +1,103 @@
+/* WriterPatternSink.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * WriterPatternSink is a {@link PatternSink} that writes every
+ * pattern as '0's and '1's to a {@link Writer}. The output is
+ * the same String {@link PatternReader#exportPattern()} returns,
+ * but it is written while the patterns are read, so the time
+ * needed grows linearly with the number of patterns and the
+ * memory needed doesn't grow at all.</p>
+ * <p>To write to a {@link java.nio.channels.WritableByteChannel},
+ * wrap it with {@link java.nio.channels.Channels#newWriter}.
+ *
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ */
+public class WriterPatternSink implements PatternSink {
+    //attributes
+    private Writer out;
+    /**
+     * the characters of the last pattern written
+     */
+    private char[] buffer;
+
+    //constructors
+    /**
+     * @param out the writer the patterns are written to
+     */
+    public WriterPatternSink(Writer out) {
+        this.out = out;
+        this.buffer = new char[0];
+    }
+
+    /**
+     * Constructs a WriterPatternSink that writes to the file of
+     * the specified name. The file has to be closed by calling
+     * {@link #close()}.
+     * @param fileName
+     * @throws IOException
+     */
+    public WriterPatternSink(String fileName) throws IOException {
+        this(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "US-ASCII")));
+    }
+
+    //methods
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSink#write(de.webdings.jannis.neuralnet.PackedPattern)
+     */
+    public void write(PackedPattern pattern) throws IOException {
+        int size = pattern.size();
+        if(buffer.length != size) {
+            buffer = new char[size];
+        }
+        long[] words = pattern.words;
+        for(int j=0;j<size;++j) {
+            buffer[j] = (words[j >>> 6] & (1L << j)) != 0 ? '1' : '0';
+        }
+        out.write(buffer, 0, size);
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.PatternSink#flush()
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * @return Returns the writer the patterns are written to.
+     */
+    public Writer getWriter() {
+        return out;
+    }
+}
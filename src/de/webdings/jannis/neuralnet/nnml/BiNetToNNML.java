@@ -15,6 +15,14 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet.nnml;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import de.webdings.jannis.events.NNMLSaveEvent;
 import de.webdings.jannis.exceptions.NeuronNotFoundException;
 import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
 import de.webdings.jannis.neuralnet.NeuralNet;
@@ -26,7 +34,11 @@ import de.webdings.jannis.neuralnet.Synapse;
  * BiNetToNNML is used to convert a neural net of
  * BiNeurons to a String containing a NNML representation
  * of that net. The purpose of this String is to be written
- * to a file. The output XML is written according to NNML 0.3
+ * to a file. The output XML is written according to NNML 0.3</p>
+ * <p>{@link #write(Neuron[][], Writer)} writes the same
+ * representation layer by layer and synapse by synapse, so
+ * the time needed grows linearly with the size of the net
+ * and the whole document never has to be kept in memory.
  * 
  * @author Stefan Thesing<br>
  * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
@@ -48,6 +60,31 @@ public class BiNetToNNML extends NetToNNML {
      * @see de.webdings.jannis.neuralnet.nnml.NetToNNML#generateString(de.webdings.jannis.neuralnet.Neuron[][])
      */
     public String generateString(Neuron[][] layers) throws NeuronTypeMismatchException, NeuronNotFoundException {
+        StringWriter out = new StringWriter();
+        try {
+            write(layers, out);
+        } catch (IOException e) {
+            //a StringWriter doesn't throw IOExceptions
+            throw new IllegalStateException(e);
+        }
+        s = out.toString();
+        return s;
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.nnml.NetToNNML#write(de.webdings.jannis.neuralnet.Neuron[][], java.io.OutputStream)
+     */
+    public void write(Neuron[][] layers, OutputStream out) throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+        write(layers, writer);
+    }
+
+    /* (non-Javadoc)
+     * @see de.webdings.jannis.neuralnet.nnml.NetToNNML#write(de.webdings.jannis.neuralnet.Neuron[][], java.io.Writer)
+     */
+    public void write(Neuron[][] layers, Writer out) throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        NNMLSaveEvent event = new NNMLSaveEvent();
+        event.begin();
     	NeuralNet net = new NeuralNet(layers);
     	String type = null;
     	if(net.getType().equals("de.webdings.jannis.neuralnet.BiNeuron")) {
@@ -56,44 +93,60 @@ public class BiNetToNNML extends NetToNNML {
     		throw new NeuronTypeMismatchException("Unknown neuron type");
     	}
     	this.finder = new NeuronIDFinder(layers);
-        s = new String("<?xml version=\"1.0\"?>\n<!DOCTYPE neural_net SYSTEM \"nnml.dtd\">\n");
-        s = s+ "<neural_net type=\"" + type + "\">\n";
+        out.write("<?xml version=\"1.0\"?>\n<!DOCTYPE neural_net SYSTEM \"nnml.dtd\">\n");
+        out.write("<neural_net type=\"" + type + "\">\n");
         int i;
         for (i = 0; i < layers.length; ++i) {
-          nextLayer(layers[i]);
+          nextLayer(layers[i], out);
         }
         for (i = 0; i < layers.length; ++i) {
           for(int j=0;j<layers[i].length;++j) {
             for(int k=0;k<layers[i][j].getConnections().length;++k) {
-              this.nextSynapse(layers[i][j].getConnections()[k]);
+              this.nextSynapse(layers[i][j].getConnections()[k], out);
             }
           }
         }
-        s = s+ "</neural_net>";
-        return s;
-      
+        out.write("</neural_net>");
+        out.flush();
+        if(event.shouldCommit()) {
+            event.layers = layers.length;
+            for(i=0;i<layers.length;++i) {
+                event.neurons += layers[i].length;
+                for(int j=0;j<layers[i].length;++j) {
+                    event.synapses += layers[i][j].getConnections().length;
+                }
+            }
+            event.commit();
+        }
     }
     
-    private void nextSynapse(Synapse synapse) throws NeuronNotFoundException {
-        s = s+ "<synapse weight=\"" + synapse.getWeight() + "\">\n";
-        s = s+ "<source layerID=\"" + finder.getLayerID(synapse.getSource())
-            + "\" neuronID=\"" + finder.getNeuronID(synapse.getSource()) + "\"/>\n";
-        s = s+ "<target layerID=\"" + finder.getLayerID(synapse.getTarget())
-            + "\" neuronID=\"" + finder.getNeuronID(synapse.getTarget()) + "\"/>\n";
-        s = s+ "</synapse>\n";
+    private void nextSynapse(Synapse synapse, Writer out) throws NeuronNotFoundException, IOException {
+        out.write("<synapse weight=\"");
+        out.write(String.valueOf(synapse.getWeight()));
+        out.write("\">\n<source layerID=\"");
+        out.write(String.valueOf(finder.getLayerID(synapse.getSource())));
+        out.write("\" neuronID=\"");
+        out.write(String.valueOf(finder.getNeuronID(synapse.getSource())));
+        out.write("\"/>\n<target layerID=\"");
+        out.write(String.valueOf(finder.getLayerID(synapse.getTarget())));
+        out.write("\" neuronID=\"");
+        out.write(String.valueOf(finder.getNeuronID(synapse.getTarget())));
+        out.write("\"/>\n</synapse>\n");
       }
 
-      private void nextNeuron(Neuron neuron)  {
-        s = s+ "<neuron sigma=\"" + neuron.getActivationFunction() + "\"/>\n";
+      private void nextNeuron(Neuron neuron, Writer out) throws IOException {
+        out.write("<neuron sigma=\"");
+        out.write(neuron.getActivationFunction());
+        out.write("\"/>\n");
       }
 
-      private void nextLayer(Neuron[] layer)  {
+      private void nextLayer(Neuron[] layer, Writer out) throws IOException {
         int j;
-        s = s+ "<layer>\n";
+        out.write("<layer>\n");
         for(j=0;j<layer.length;++j) {
-          nextNeuron(layer[j]);
+          nextNeuron(layer[j], out);
         }
-        s = s+ "</layer>\n";
+        out.write("</layer>\n");
       }
      
       
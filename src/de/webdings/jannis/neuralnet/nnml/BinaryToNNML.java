@@ -0,0 +1,61 @@
+/* BinaryToNNML.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet.nnml;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+import de.webdings.jannis.neuralnet.BinaryNet;
+
+/**
+ * BinaryToNNML converts a net stored in the binary format
+ * described in {@link BinaryNet} into a NNML file.
+ * 
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see NNMLToBinary
+ */
+public class BinaryToNNML {
+
+    /**
+     * Reads the binary file of the name <code>binaryFileName</code>
+     * and writes the net to the NNML file of the name
+     * <code>nnmlFileName</code>.
+     * @param binaryFileName
+     * @param nnmlFileName
+     * @throws IOException if a file can't be read or written or
+     * if the binary file isn't valid
+     */
+    public void convert(String binaryFileName, String nnmlFileName) throws IOException {
+        BinaryNet net = new BinaryNet(binaryFileName);
+        OutputStream out = new FileOutputStream(nnmlFileName);
+        try {
+            new BiNetToNNML().write(net.toBiNet(), out);
+        } catch (NeuronTypeMismatchException e) {
+            //a binary net always consists of BiNeurons
+            throw new IllegalStateException(e);
+        } catch (NeuronNotFoundException e) {
+            //all synapses of a binary net target neurons of the net
+            throw new IllegalStateException(e);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -15,17 +15,30 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet.nnml;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import de.webdings.jannis.events.NNMLLoadEvent;
 import de.webdings.jannis.exceptions.NNMLException;
 import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
 import de.webdings.jannis.neuralnet.BiNeuron;
 import de.webdings.jannis.neuralnet.Neuron;
-import de.webdings.tools.CharToFloat;
-import de.webdings.tools.CharToInt;
-import de.webdings.tools.StringSearch;
+import de.webdings.jannis.neuralnet.Synapse;
 
 /**
  * NNMLToBiNet is used to construct a neural net with
- * BiNeurons from a NNML representation. 
+ * BiNeurons from a NNML representation.</p>
+ * <p>The NNML document is read in a single pass with a
+ * {@link XMLStreamReader}, so it can be read directly from
+ * an {@link InputStream} without keeping the whole document
+ * in memory. Layer and neuron IDs of any size as well as
+ * weights and sigmas of full precision are supported.
  * 
  * @author Stefan Thesing<br>
  * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
@@ -48,105 +61,235 @@ public class NNMLToBiNet extends NNMLToNet {
         return this.convertToBiNet(s);
     }
 
-    private BiNeuron parseNeuron(String neuron) {
-        return new BiNeuron(CharToFloat.convert(
-                neuron.substring(neuron.indexOf("=")+2, 
-                neuron.indexOf(".")+2)));
+    /**
+     * See {@link #convertToNet(String)}
+     * @param s string containing NNML representation of the net
+     * @return array containing layers of BiNeurons
+     * @throws NNMLException
+     * @throws NeuronTypeMismatchException 
+     */
+    public BiNeuron[][] convertToBiNet(String s) throws NNMLException, NeuronTypeMismatchException  {
+        return convertToBiNet(new StringReader(s));
     }
 
-    private BiNeuron[] parseLayer(String layerStr) {
-        String[] s = new String[0];
-        String[] buffer;
-        while(layerStr.indexOf("<neuron") != -1) {
-          buffer = new String[s.length+1];
-          for(int i=0;i<s.length;++i) {
-            buffer[i] = s[i];
-          }
-          buffer[s.length] = layerStr.substring(layerStr.indexOf("<neuron"), layerStr.indexOf("/>"));
-          layerStr = layerStr.substring(layerStr.indexOf("/>")+1);
-          s = buffer;
-        }
-        //Construct an array for the layer
-        BiNeuron[] layer = new BiNeuron[s.length];
-        //fill the array
-        for(int i=0;i<layer.length;++i) {
-          layer[i] = parseNeuron(s[i]);
+    /**
+     * Reads a NNML representation of a net from the specified
+     * stream. The stream is not closed.
+     * @param in stream containing NNML representation of the net
+     * @return array containing layers of BiNeurons
+     * @throws NNMLException if the stream can't be read or doesn't
+     * contain valid NNML
+     * @throws NeuronTypeMismatchException 
+     */
+    public BiNeuron[][] convertToBiNet(InputStream in) throws NNMLException, NeuronTypeMismatchException {
+        try {
+            return parse(createFactory().createXMLStreamReader(in));
+        } catch (XMLStreamException e) {
+            throw new NNMLException("This is not valid NNML!", e);
         }
-        return layer;
-      }
+    }
 
-      private BiNeuron[][] parseLayers(String layersStr) {
-        String[] s = new String[0];
-        String[] buffer;
-        //fill the array with the strings representing
-        //each layer
-        while(layersStr.indexOf("<layer>") != -1) {
-          buffer = new String[s.length+1];
-          for(int i=0;i<s.length;++i) {
-            buffer[i] = s[i];
-          }
-          buffer[s.length] = layersStr.substring(layersStr.indexOf("<layer>"), layersStr.indexOf("</layer>"));
-          layersStr = layersStr.substring(layersStr.indexOf("</layer>")+1);
-          s = buffer;
-        }
-        //construct array for the layers
-        BiNeuron[][] layers = new BiNeuron[s.length][];
-        //fill the array
-        for(int i=0;i<layers.length;++i) {
-            layers[i] = parseLayer(s[i]);
+    /**
+     * Reads a NNML representation of a net from the specified
+     * reader. The reader is not closed.
+     * @param in reader containing NNML representation of the net
+     * @return array containing layers of BiNeurons
+     * @throws NNMLException if the reader can't be read or doesn't
+     * contain valid NNML
+     * @throws NeuronTypeMismatchException 
+     */
+    public BiNeuron[][] convertToBiNet(Reader in) throws NNMLException, NeuronTypeMismatchException {
+        try {
+            return parse(createFactory().createXMLStreamReader(in));
+        } catch (XMLStreamException e) {
+            throw new NNMLException("This is not valid NNML!", e);
         }
-        return layers;
-      }
+    }
 
-      private void parseSynapses(String synapses, BiNeuron[][] schichten) throws NNMLException  {
-        try {
-            while(synapses.indexOf("<synapse") != -1) {
-              synapses = synapses.substring(synapses.indexOf("<synapse"));
-              String weightStr = synapses.substring(synapses.indexOf("=")+2, synapses.indexOf(".")+2);
-              float weight = CharToFloat.convert(weightStr);
-              synapses = synapses.substring(synapses.indexOf("<source"));
-              int sourceLayerID = CharToInt.convert(synapses.charAt(synapses.indexOf("=")+2));
-              synapses = synapses.substring(synapses.indexOf("neuronID"));
-              int sourceNeuronID = CharToInt.convert(synapses.charAt(synapses.indexOf("=")+2));
-              synapses = synapses.substring(synapses.indexOf("<target"));
-              int targetLayerID = CharToInt.convert(synapses.charAt(synapses.indexOf("=")+2));
-              synapses = synapses.substring(synapses.indexOf("neuronID"));
-              int targetNeuronID = CharToInt.convert(synapses.charAt(synapses.indexOf("=")+2));
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        //the DTD is neither needed nor available
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
 
-              schichten[sourceLayerID][sourceNeuronID].addConnection(schichten[targetLayerID][targetNeuronID], weight);
+    private BiNeuron[][] parse(XMLStreamReader reader) throws XMLStreamException, NNMLException, NeuronTypeMismatchException {
+        NNMLLoadEvent event = new NNMLLoadEvent();
+        event.begin();
+        BiNeuron[][] layers = new BiNeuron[4][];
+        int numberOfLayers = 0;
+        BiNeuron[] layer = null;
+        int layerSize = 0;
+        //the synapses are stored as they are read and connected
+        //when the whole document has been read
+        int[] sources = new int[32];
+        int[] targets = new int[32];
+        float[] weights = new float[16];
+        int numberOfSynapses = 0;
+        //whether the current synapse has a source and a target
+        boolean sourceFound = false;
+        boolean targetFound = false;
+        boolean netFound = false;
+        try {
+            while(reader.hasNext()) {
+                if(reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    if(reader.getEventType() == XMLStreamConstants.END_ELEMENT
+                       && reader.getLocalName().equals("layer")) {
+                        if(numberOfLayers == layers.length) {
+                            BiNeuron[][] buffer = new BiNeuron[numberOfLayers*2][];
+                            System.arraycopy(layers, 0, buffer, 0, numberOfLayers);
+                            layers = buffer;
+                        }
+                        layers[numberOfLayers] = new BiNeuron[layerSize];
+                        System.arraycopy(layer, 0, layers[numberOfLayers], 0, layerSize);
+                        ++numberOfLayers;
+                        layer = null;
+                    }
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if(name.equals("neural_net")) {
+                    if(!"bineuron".equals(reader.getAttributeValue(null, "type"))) {
+                        throw new NeuronTypeMismatchException("Unsupported neuron type!");
+                    }
+                    netFound = true;
+                } else if(name.equals("layer")) {
+                    layer = new BiNeuron[16];
+                    layerSize = 0;
+                } else if(name.equals("neuron")) {
+                    if(layer == null) {
+                        throw new NNMLException("Found a neuron outside of a layer!");
+                    }
+                    if(layerSize == layer.length) {
+                        BiNeuron[] buffer = new BiNeuron[layerSize*2];
+                        System.arraycopy(layer, 0, buffer, 0, layerSize);
+                        layer = buffer;
+                    }
+                    layer[layerSize++] = new BiNeuron(parseFloat(reader, "sigma"));
+                } else if(name.equals("synapse")) {
+                    if(numberOfSynapses > 0 && !(sourceFound && targetFound)) {
+                        throw new NNMLException("Found a synapse without a source or target!");
+                    }
+                    sourceFound = false;
+                    targetFound = false;
+                    if(numberOfSynapses == weights.length) {
+                        int[] buffer = new int[numberOfSynapses*4];
+                        System.arraycopy(sources, 0, buffer, 0, numberOfSynapses*2);
+                        sources = buffer;
+                        buffer = new int[numberOfSynapses*4];
+                        System.arraycopy(targets, 0, buffer, 0, numberOfSynapses*2);
+                        targets = buffer;
+                        float[] weightBuffer = new float[numberOfSynapses*2];
+                        System.arraycopy(weights, 0, weightBuffer, 0, numberOfSynapses);
+                        weights = weightBuffer;
+                    }
+                    weights[numberOfSynapses] = parseFloat(reader, "weight");
+                    ++numberOfSynapses;
+                } else if(name.equals("source") || name.equals("target")) {
+                    if(numberOfSynapses == 0) {
+                        throw new NNMLException("Found a " + name + " outside of a synapse!");
+                    }
+                    int[] ids;
+                    if(name.equals("source")) {
+                        ids = sources;
+                        sourceFound = true;
+                    } else {
+                        ids = targets;
+                        targetFound = true;
+                    }
+                    ids[(numberOfSynapses-1)*2] = parseInt(reader, "layerID");
+                    ids[(numberOfSynapses-1)*2+1] = parseInt(reader, "neuronID");
+                }
             }
-        } catch (NumberFormatException e) {
-            throw new NNMLException("Error in parsing a neuron ID or layer ID", e.getCause());
+        } finally {
+            reader.close();
+        }
+        if(!netFound || numberOfLayers == 0) {
+            throw new NNMLException("This is not valid NNML!");
         }
-      }
+        if(numberOfSynapses > 0 && !(sourceFound && targetFound)) {
+            throw new NNMLException("Found a synapse without a source or target!");
+        }
+        BiNeuron[][] schichten = new BiNeuron[numberOfLayers][];
+        System.arraycopy(layers, 0, schichten, 0, numberOfLayers);
+        connect(schichten, sources, targets, weights, numberOfSynapses);
+        if(event.shouldCommit()) {
+            event.layers = numberOfLayers;
+            for(int i=0;i<numberOfLayers;++i) {
+                event.neurons += schichten[i].length;
+            }
+            event.synapses = numberOfSynapses;
+            event.commit();
+        }
+        return schichten;
+    }
 
     /**
-     * See {@link #convertToNet(String)}
-     * @param s string containing NNML representation of the net
-     * @return array containing layers of BiNeurons
-     * @throws NNMLException
-     * @throws NeuronTypeMismatchException 
+     * Adds the synapses to the neurons. The outgoing connections
+     * of every neuron are set at once, in the order they appear
+     * in the document.
      */
-    public BiNeuron[][] convertToBiNet(String s) throws NNMLException, NeuronTypeMismatchException  {
-    	String layersStr;
-        String synapses;
-        String typeStr;
-        int beginType = s.indexOf("<neural_net type=");
-        int beginLayers = s.indexOf("<layer>");
-        typeStr = s.substring(beginType, beginLayers-1);
-        if(!StringSearch.stringContains(typeStr, "type=\"bineuron\"")){
-        	throw new NeuronTypeMismatchException("Unsupported neuron type!");
+    private void connect(BiNeuron[][] schichten, int[] sources, int[] targets,
+            float[] weights, int numberOfSynapses) throws NNMLException {
+        int[][] count = new int[schichten.length][];
+        for(int i=0;i<schichten.length;++i) {
+            count[i] = new int[schichten[i].length];
         }
-        int beginSynapsen = s.indexOf("<synapse");
-        if(beginLayers < 0 || beginSynapsen <0) {
-          throw new NNMLException("This is not valid NNML!");
-        } else {
-          layersStr = s.substring(beginLayers, beginSynapsen-1);
-          synapses = s.substring(beginSynapsen);
-          BiNeuron[][] schichten = parseLayers(layersStr);
-          parseSynapses(synapses, schichten);
-          return schichten;
+        for(int k=0;k<numberOfSynapses;++k) {
+            checkIDs(schichten, sources[k*2], sources[k*2+1]);
+            checkIDs(schichten, targets[k*2], targets[k*2+1]);
+            ++count[sources[k*2]][sources[k*2+1]];
+        }
+        Synapse[][][] connections = new Synapse[schichten.length][][];
+        for(int i=0;i<schichten.length;++i) {
+            connections[i] = new Synapse[schichten[i].length][];
+            for(int j=0;j<schichten[i].length;++j) {
+                connections[i][j] = new Synapse[count[i][j]];
+                count[i][j] = 0;
+            }
+        }
+        for(int k=0;k<numberOfSynapses;++k) {
+            int layerID = sources[k*2];
+            int neuronID = sources[k*2+1];
+            connections[layerID][neuronID][count[layerID][neuronID]++] = new Synapse(
+                    schichten[layerID][neuronID], schichten[targets[k*2]][targets[k*2+1]], weights[k]);
+        }
+        for(int i=0;i<schichten.length;++i) {
+            for(int j=0;j<schichten[i].length;++j) {
+                schichten[i][j].setConnections(connections[i][j]);
+            }
         }
-      }
+    }
+
+    private static void checkIDs(BiNeuron[][] schichten, int layerID, int neuronID) throws NNMLException {
+        if(layerID < 0 || layerID >= schichten.length 
+           || neuronID < 0 || neuronID >= schichten[layerID].length) {
+            throw new NNMLException("A synapse refers to layerID " + layerID 
+                    + " and neuronID " + neuronID + ", which don't exist!");
+        }
+    }
+
+    private static float parseFloat(XMLStreamReader reader, String attribute) throws NNMLException {
+        String value = reader.getAttributeValue(null, attribute);
+        try {
+            return Float.parseFloat(value);
+        } catch (NullPointerException e) {
+            throw new NNMLException("Missing attribute " + attribute + "!", e);
+        } catch (NumberFormatException e) {
+            throw new NNMLException("Error in parsing " + attribute + ": " + value, e);
+        }
+    }
+
+    private static int parseInt(XMLStreamReader reader, String attribute) throws NNMLException {
+        String value = reader.getAttributeValue(null, attribute);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NullPointerException e) {
+            throw new NNMLException("Missing attribute " + attribute + "!", e);
+        } catch (NumberFormatException e) {
+            throw new NNMLException("Error in parsing a neuron ID or layer ID", e);
+        }
+    }
     
 }
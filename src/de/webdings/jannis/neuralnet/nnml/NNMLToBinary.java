@@ -0,0 +1,68 @@
+/* NNMLToBinary.java - Copyright (c) 2026 by Stefan Thesing
+ <p>This file is part of Jannis.</p>
+ <p>Jannis is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.</p>
+<p>Jannis is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.</p>
+<p>You should have received a copy of the GNU General Public License
+along with Jannis; if not, write to the<br>
+Free Software Foundation, Inc.,<br>
+51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA<br>
+*/
+package de.webdings.jannis.neuralnet.nnml;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.webdings.jannis.exceptions.NNMLException;
+import de.webdings.jannis.exceptions.NeuronNotFoundException;
+import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
+import de.webdings.jannis.neuralnet.BiNeuron;
+import de.webdings.jannis.neuralnet.BinaryNet;
+import de.webdings.jannis.neuralnet.BinaryNetWriter;
+
+/**
+ * NNMLToBinary converts a NNML file describing a net of
+ * BiNeurons into the binary format described in
+ * {@link BinaryNet}, which can be loaded much faster.
+ * 
+ * @author Stefan Thesing<br>
+ * Website: <a href="http://www.webdings.de">http://www.webdings.de</a>
+ * @version 0.1 17.10.2026
+ * @see BinaryToNNML
+ */
+public class NNMLToBinary {
+
+    /**
+     * Reads the NNML file of the name <code>nnmlFileName</code>
+     * and writes the net to the binary file of the name
+     * <code>binaryFileName</code>.
+     * @param nnmlFileName
+     * @param binaryFileName
+     * @throws NNMLException if the NNML file isn't valid
+     * @throws NeuronTypeMismatchException if the NNML file doesn't
+     * describe a net of BiNeurons
+     * @throws IOException
+     */
+    public void convert(String nnmlFileName, String binaryFileName) throws NNMLException, NeuronTypeMismatchException, IOException {
+        BiNeuron[][] layers;
+        InputStream in = new BufferedInputStream(new FileInputStream(nnmlFileName));
+        try {
+            layers = new NNMLToBiNet().convertToBiNet(in);
+        } finally {
+            in.close();
+        }
+        try {
+            new BinaryNetWriter().write(layers, binaryFileName);
+        } catch (NeuronNotFoundException e) {
+            //all synapses read from NNML target neurons of the net
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -15,6 +15,11 @@ Free Software Foundation, Inc.,<br>
 */
 package de.webdings.jannis.neuralnet.nnml;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
 import de.webdings.jannis.exceptions.NeuronNotFoundException;
 import de.webdings.jannis.exceptions.NeuronTypeMismatchException;
 import de.webdings.jannis.neuralnet.NeuralNet;
@@ -25,7 +30,9 @@ import de.webdings.jannis.neuralnet.NeuronIDFinder;
  * NetToNNML is used to convert a neural net of to a String 
  * containing a NNML representation
  * of that net. The purpose of this String is to be written
- * to a file.
+ * to a file. For large nets, the NNML representation can also
+ * be written to a {@link Writer} or {@link OutputStream} 
+ * piece by piece, without building the whole String first.
  * NetToNNML is abstract, so a concrete subclass of 
  * NetToNNML must be used.
  * 
@@ -62,4 +69,36 @@ public abstract class NetToNNML {
      */
     public abstract String generateString(NeuralNet net)
     	throws NeuronTypeMismatchException, NeuronNotFoundException;
+    /**
+     * Writes a NNML representation of the net to the specified
+     * {@link Writer}. The writer is flushed, but not closed.
+     * This implementation writes the String returned by
+     * {@link #generateString(Neuron[][])}; subclasses can
+     * override it to write the NNML without building the
+     * whole String first.
+     * @param layers the layers of the net to be converted to NNML
+     * @param out
+     * @throws NeuronTypeMismatchException if the layers contain neurons of different types
+     * @throws NeuronNotFoundException 
+     * @throws IOException if writing fails
+     */
+    public void write(Neuron[][] layers, Writer out) 
+    	throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        out.write(generateString(layers));
+        out.flush();
+    }
+    /**
+     * Writes a NNML representation of the net to the specified
+     * {@link OutputStream} using UTF-8. The stream is flushed,
+     * but not closed.
+     * @param layers the layers of the net to be converted to NNML
+     * @param out
+     * @throws NeuronTypeMismatchException if the layers contain neurons of different types
+     * @throws NeuronNotFoundException 
+     * @throws IOException if writing fails
+     */
+    public void write(Neuron[][] layers, OutputStream out) 
+    	throws NeuronTypeMismatchException, NeuronNotFoundException, IOException {
+        write(layers, new OutputStreamWriter(out, "UTF-8"));
+    }
 }